@@ -0,0 +1,48 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * findAccount on a few hot accounts, with and without the read-through account cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AccountLookupBenchmark {
+
+    @Param({"2", "16"})
+    int hotAccounts;
+    @Param({"false", "true"})
+    boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private Long[] accountIds;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ServiceFixture.start(WebApplicationType.NONE, "account.cache.enabled=" + cacheEnabled);
+        accountService = context.getBean(AccountService.class);
+        accountIds = ServiceFixture.seedAccounts(context, hotAccounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Account findAccount() {
+        return accountService.findAccount(accountIds[ThreadLocalRandom.current().nextInt(accountIds.length)]);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks once per contention level, 1, 8 and 64 threads unless -Dbenchmark.threads=... is given.
+ * Every other argument is a regular JMH command line option, e.g. {@code TransferService -p hotAccounts=2 -rf json}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        for (String threads : System.getProperty("benchmark.threads", "1,8,64").split(",")) {
+            ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLineOptions)
+                                                                .threads(Integer.parseInt(threads.trim()));
+            if (commandLineOptions.getResult().hasValue()) {
+                options.result(commandLineOptions.getResult().get().replace(".", "-t" + threads.trim() + "."));
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
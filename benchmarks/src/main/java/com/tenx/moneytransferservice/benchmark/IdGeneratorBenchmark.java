@@ -0,0 +1,78 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into {@link TransferTransactionRepository} per id strategy: a sequence call per row,
+ * pooled-lo blocks of 50 ids and snowflake ids drawn in the JVM. save inserts one row per transaction,
+ * saveAll a JDBC batch of {@link #BATCH_SIZE} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IdGeneratorBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"sequence", "pooled-lo", "snowflake"})
+    String strategy;
+
+    private ConfigurableApplicationContext context;
+    private TransferTransactionRepository transferTransactionRepository;
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = "sequence".equals(strategy)
+                ? ServiceFixture.start(WebApplicationType.NONE, "id.generator.strategy=pooled-lo", "id.generator.increment=1")
+                : ServiceFixture.start(WebApplicationType.NONE, "id.generator.strategy=" + strategy);
+        transferTransactionRepository = context.getBean(TransferTransactionRepository.class);
+        Long[] accountIds = ServiceFixture.seedAccounts(context, 2);
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        sourceAccount = accountRepository.findById(accountIds[0]).get();
+        targetAccount = accountRepository.findById(accountIds[1]).get();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransferTransaction save() {
+        return transferTransactionRepository.save(transfer());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<TransferTransaction> saveAll() {
+        List<TransferTransaction> transfers = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            transfers.add(transfer());
+        }
+        return transferTransactionRepository.saveAll(transfers);
+    }
+
+    private TransferTransaction transfer() {
+        return TransferTransaction.builder().sourceAccount(sourceAccount)
+                                            .targetAccount(targetAccount)
+                                            .amount(ServiceFixture.AMOUNT)
+                                            .createdAt(LocalDateTime.now())
+                                            .build();
+    }
+}
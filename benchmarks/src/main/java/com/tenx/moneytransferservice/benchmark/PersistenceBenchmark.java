@@ -0,0 +1,112 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.service.BatchTransferService;
+import com.tenx.moneytransferservice.service.TransferTransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transfers against the in-memory and the file backed database of the prod profile, with the persistence tuning
+ * of the service and without it: a fixed pool of 10 connections, no JDBC batching and a sequence call per inserted row.
+ * Every thread transfers between accounts of its own, so the pool and the inserts are measured rather than row contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PersistenceBenchmark {
+
+    private static final int MAX_THREADS = 64;
+    private static final int ACCOUNTS_PER_THREAD = 16;
+    private static final int BATCH_SIZE = 100;
+
+    @Param({"mem", "file"})
+    String database;
+    @Param({"untuned", "tuned"})
+    String tuning;
+
+    private ConfigurableApplicationContext context;
+    private TransferTransactionService transferTransactionService;
+    private BatchTransferService batchTransferService;
+    private Long[] accountIds;
+    private Path databaseDirectory;
+    private final AtomicInteger threads = new AtomicInteger();
+
+    @State(Scope.Thread)
+    public static class ThreadAccounts {
+        Long[] accountIds;
+
+        @Setup(Level.Trial)
+        public void assign(PersistenceBenchmark benchmark) {
+            int from = benchmark.threads.getAndIncrement() % MAX_THREADS * ACCOUNTS_PER_THREAD;
+            accountIds = Arrays.copyOfRange(benchmark.accountIds, from, from + ACCOUNTS_PER_THREAD);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        List<String> properties = new ArrayList<>();
+        if ("file".equals(database)) {
+            databaseDirectory = Files.createTempDirectory("transferdb-benchmark");
+            properties.addAll(Arrays.asList(
+                    "spring.datasource.url=jdbc:h2:file:" + databaseDirectory.resolve("transferdb") + ";WRITE_DELAY=0",
+                    "spring.jpa.hibernate.ddl-auto=create-drop"));
+        }
+        if ("tuned".equals(tuning)) {
+            properties.add("datasource.pool.size-from-cores=true");
+        } else {
+            properties.addAll(Arrays.asList(
+                    "spring.datasource.hikari.maximum-pool-size=10",
+                    "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+                    "spring.jpa.properties.hibernate.order_inserts=false",
+                    "spring.jpa.properties.hibernate.order_updates=false",
+                    "spring.jpa.properties.hibernate.id.optimizer.pooled.preferred=none"));
+        }
+        context = ServiceFixture.start(WebApplicationType.NONE, properties.toArray(new String[0]));
+        transferTransactionService = context.getBean(TransferTransactionService.class);
+        batchTransferService = context.getBean(BatchTransferService.class);
+        accountIds = ServiceFixture.seedAccounts(context, MAX_THREADS * ACCOUNTS_PER_THREAD);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        if (databaseDirectory != null) {
+            FileSystemUtils.deleteRecursively(databaseDirectory);
+        }
+    }
+
+    @Benchmark
+    public Object transfer(ThreadAccounts accounts) {
+        Long[] pair = ServiceFixture.randomPair(accounts.accountIds);
+        return transferTransactionService.transfer(pair[0], pair[1], ServiceFixture.AMOUNT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public Object transferBatch(ThreadAccounts accounts) {
+        List<TransferTransactionDTO> transfers = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Long[] pair = ServiceFixture.randomPair(accounts.accountIds);
+            transfers.add(TransferTransactionDTO.builder().sourceAccountId(pair[0])
+                                                          .targetAccountId(pair[1])
+                                                          .amount(ServiceFixture.AMOUNT)
+                                                          .build());
+        }
+        return batchTransferService.transferBatch(transfers);
+    }
+}
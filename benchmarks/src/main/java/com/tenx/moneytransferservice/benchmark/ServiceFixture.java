@@ -0,0 +1,79 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.MoneyTransferServiceApplication;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Starts the service against a private H2 database, in-memory unless a datasource url is given, and seeds the hot accounts every benchmark contends on.
+ */
+final class ServiceFixture {
+
+    /** Large enough that random transfers of {@link #AMOUNT} in both directions never run an account dry. */
+    private static final long OPENING_BALANCE = Money.parse("1000000000000");
+    static final long AMOUNT = Money.parse("1");
+
+    private ServiceFixture() {
+    }
+
+    /**
+     * @param properties extra service properties in {@code name=value} form, passed as command line arguments
+     *                   so they override the packaged application properties. The test profile is active unless
+     *                   spring.profiles.active is among them, and the in-memory database unless spring.datasource.url is
+     */
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--logging.level.root=WARN",
+                "--server.port=0"));
+        boolean profilesGiven = false;
+        boolean urlGiven = false;
+        for (String property : properties) {
+            args.add("--" + property);
+            profilesGiven |= property.startsWith("spring.profiles.active=");
+            urlGiven |= property.startsWith("spring.datasource.url=");
+        }
+        if (!profilesGiven) {
+            args.add("--spring.profiles.active=test");
+        }
+        if (!urlGiven) {
+            args.add("--spring.datasource.url=jdbc:h2:mem:transferdb-benchmark");
+        }
+        return new SpringApplicationBuilder(MoneyTransferServiceApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+    }
+
+    static Long[] seedAccounts(ConfigurableApplicationContext context, int count) {
+        AccountRepository accountRepository = context.getBean(AccountRepository.class);
+        Long[] accountIds = new Long[count];
+        for (int i = 0; i < count; i++) {
+            accountIds[i] = accountRepository.save(Account.builder()
+                                                          .balance(OPENING_BALANCE)
+                                                          .currency(Currency.GBP)
+                                                          .createdAt(LocalDateTime.now())
+                                                          .build()).getId();
+        }
+        return accountIds;
+    }
+
+    /**
+     * Picks two distinct accounts, so with few hot accounts most concurrent transfers touch the same rows.
+     */
+    static Long[] randomPair(Long[] accountIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int source = random.nextInt(accountIds.length);
+        int target = (source + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        return new Long[]{accountIds[source], accountIds[target]};
+    }
+}
@@ -0,0 +1,134 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.tenx.moneytransferservice.controller.TransferFrame;
+import com.tenx.moneytransferservice.controller.TransferFrameHttpMessageConverter;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request bodies as JSON against {@link TransferFrame}s, for one transfer and for a batch of batchSize transfers.
+ * Frames are read through {@link TransferFrameHttpMessageConverter} like the MVC endpoints do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferFrameBenchmark {
+
+    private static final Type TRANSFER_LIST = ResolvableType.forClassWithGenerics(List.class, TransferTransactionDTO.class).getType();
+
+    @Param({"100"})
+    int batchSize;
+
+    private ObjectMapper objectMapper;
+    private JavaType transferListType;
+    private TransferFrameHttpMessageConverter converter;
+    private TransferTransactionDTO transfer;
+    private List<TransferTransactionDTO> batch;
+    private byte[] json;
+    private byte[] jsonBatch;
+    private byte[] frame;
+    private byte[] frameBatch;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                 .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                                                 .build();
+        transferListType = objectMapper.getTypeFactory().constructCollectionType(List.class, TransferTransactionDTO.class);
+        converter = new TransferFrameHttpMessageConverter();
+        transfer = TransferTransactionDTO.builder()
+                                         .sourceAccountId(101L)
+                                         .targetAccountId(102L)
+                                         .amount(Money.parse("100.25"))
+                                         .build();
+        batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(transfer);
+        }
+        json = objectMapper.writeValueAsBytes(transfer);
+        jsonBatch = objectMapper.writeValueAsBytes(batch);
+        frame = serializeFrame();
+        frameBatch = serializeFrameBatch();
+    }
+
+    @Benchmark
+    public byte[] serializeJson() throws IOException {
+        return objectMapper.writeValueAsBytes(transfer);
+    }
+
+    @Benchmark
+    public byte[] serializeFrame() {
+        ByteBuffer buffer = ByteBuffer.allocate(TransferFrame.FRAME_SIZE);
+        TransferFrame.encode(buffer, transfer);
+        return buffer.array();
+    }
+
+    @Benchmark
+    public TransferTransactionDTO deserializeJson() throws IOException {
+        return objectMapper.readValue(json, TransferTransactionDTO.class);
+    }
+
+    @Benchmark
+    public Object deserializeFrame() throws IOException {
+        return converter.read(TransferTransactionDTO.class, null, body(frame));
+    }
+
+    @Benchmark
+    public byte[] serializeJsonBatch() throws IOException {
+        return objectMapper.writeValueAsBytes(batch);
+    }
+
+    @Benchmark
+    public byte[] serializeFrameBatch() {
+        ByteBuffer buffer = ByteBuffer.allocate(batch.size() * TransferFrame.FRAME_SIZE);
+        for (TransferTransactionDTO transfer : batch) {
+            TransferFrame.encode(buffer, transfer);
+        }
+        return buffer.array();
+    }
+
+    @Benchmark
+    public List<TransferTransactionDTO> deserializeJsonBatch() throws IOException {
+        return objectMapper.readValue(jsonBatch, transferListType);
+    }
+
+    @Benchmark
+    public Object deserializeFrameBatch() throws IOException {
+        return converter.read(TRANSFER_LIST, null, body(frameBatch));
+    }
+
+    private static HttpInputMessage body(byte[] content) {
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(content);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return HttpHeaders.EMPTY;
+            }
+        };
+    }
+}
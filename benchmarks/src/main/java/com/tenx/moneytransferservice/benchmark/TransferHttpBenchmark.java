@@ -0,0 +1,86 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full POST /v1/transfers path, JSON parsing, controller, retries and H2, over loopback HTTP against the embedded server.
+ * Comparing executionMode sync and async with a small tomcatThreads at 64 client threads shows how much concurrency
+ * the async executor carries once the container threads would otherwise all be blocked on JDBC, read the p99 from SampleTime.
+ * The reactive stack serves the same endpoint from WebFlux on R2DBC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferHttpBenchmark {
+
+    @Param({"2", "16"})
+    int hotAccounts;
+    @Param({"optimistic", "striped", "pessimistic"})
+    String concurrencyMode;
+    @Param({"sync", "async"})
+    String executionMode;
+    @Param({"200", "8"})
+    int tomcatThreads;
+    /** servlet runs the Spring MVC controllers, reactive the WebFlux router on R2DBC where executionMode and tomcatThreads do not apply */
+    @Param({"servlet", "reactive"})
+    String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private URI transfersUri;
+    private Long[] accountIds;
+
+    /**
+     * Responses other than 201, reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Failures {
+        public long failures;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ServiceFixture.start("reactive".equals(stack) ? WebApplicationType.REACTIVE : WebApplicationType.SERVLET,
+                "spring.profiles.active=" + ("reactive".equals(stack) ? "test,reactive" : "test"),
+                "transfer.concurrency.mode=" + concurrencyMode,
+                "transfer.execution.mode=" + executionMode,
+                "server.tomcat.threads.max=" + tomcatThreads);
+        accountIds = ServiceFixture.seedAccounts(context, hotAccounts);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        transfersUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/v1/transfers");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int transfer(Failures failures) throws IOException, InterruptedException {
+        Long[] pair = ServiceFixture.randomPair(accountIds);
+        String body = "{\"sourceAccountId\": " + pair[0] + ", \"targetAccountId\": " + pair[1] + ", \"amount\": " + Money.format(ServiceFixture.AMOUNT) + "}";
+        HttpRequest request = HttpRequest.newBuilder(transfersUri)
+                                         .header("Content-Type", "application/json")
+                                         .POST(HttpRequest.BodyPublishers.ofString(body))
+                                         .build();
+        int status = httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 201) {
+            failures.failures++;
+        }
+        return status;
+    }
+}
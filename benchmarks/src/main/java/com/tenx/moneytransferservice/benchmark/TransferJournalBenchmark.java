@@ -0,0 +1,59 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.journal.FsyncPolicy;
+import com.tenx.moneytransferservice.journal.TransferJournal;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Durable appends to the {@link TransferJournal} per {@link FsyncPolicy}, to compare with
+ * {@link IdGeneratorBenchmark#save} inserting the same transfer through JPA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferJournalBenchmark {
+
+    @Param({"NONE", "INTERVAL", "GROUP", "EVERY_WRITE"})
+    FsyncPolicy fsync;
+
+    private Path directory;
+    private TransferJournal journal;
+    private TransferTransaction transfer;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        directory = Files.createTempDirectory("transfer-journal-benchmark");
+        journal = TransferJournal.open(directory, 64 * 1024 * 1024, fsync, Duration.ofMillis(10));
+        transfer = TransferTransaction.builder().sourceAccount(Account.builder().id(101L).build())
+                                                .targetAccount(Account.builder().id(102L).build())
+                                                .amount(ServiceFixture.AMOUNT)
+                                                .createdAt(LocalDateTime.now())
+                                                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        journal.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public long append() throws IOException {
+        long transferId = journal.append(transfer);
+        journal.awaitDurable(transferId);
+        return transferId;
+    }
+}
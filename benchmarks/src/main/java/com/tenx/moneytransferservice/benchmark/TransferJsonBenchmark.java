@@ -0,0 +1,83 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
+import com.tenx.moneytransferservice.controller.MoneyDeserializer;
+import com.tenx.moneytransferservice.controller.ResponseDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTODeserializer;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Money;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON (de)serialization of the transfer request body, with the object mapper configured the way Spring Boot builds it,
+ * including the parameter names module the DTO's builder constructor relies on.
+ * deserializeBean reads the same body through Jackson's bean deserializer instead of {@link TransferTransactionDTODeserializer},
+ * rejection builds an expected rejection and its response message the way the exception handlers do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper beanObjectMapper;
+    private TransferTransactionDTO transferTransactionDTO;
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                                                 .modulesToInstall(new ParameterNamesModule(JsonCreator.Mode.DEFAULT))
+                                                 .build();
+        beanObjectMapper = objectMapper.copy().addMixIn(TransferTransactionDTO.class, BeanDeserialized.class);
+        transferTransactionDTO = TransferTransactionDTO.builder()
+                                                       .sourceAccountId(101L)
+                                                       .targetAccountId(102L)
+                                                       .amount(Money.parse("100.25"))
+                                                       .build();
+        json = "{\"sourceAccountId\": \"101\", \"targetAccountId\": \"102\", \"amount\": \"100.25\"}".getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(transferTransactionDTO);
+    }
+
+    @Benchmark
+    public TransferTransactionDTO deserialize() throws IOException {
+        return objectMapper.readValue(json, TransferTransactionDTO.class);
+    }
+
+    @Benchmark
+    public TransferTransactionDTO deserializeBean() throws IOException {
+        return beanObjectMapper.readValue(json, TransferTransactionDTO.class);
+    }
+
+    @Benchmark
+    public ResponseDTO rejection() {
+        try {
+            throw new InsufficientBalanceException(transferTransactionDTO.getSourceAccountId());
+        } catch (InsufficientBalanceException e) {
+            return ResponseDTO.builder().message(e.getMessage()).build();
+        }
+    }
+
+    @JsonDeserialize(using = JsonDeserializer.None.class)
+    abstract static class BeanDeserialized {
+        @JsonDeserialize(using = MoneyDeserializer.class)
+        abstract void setAmount(long amount);
+    }
+}
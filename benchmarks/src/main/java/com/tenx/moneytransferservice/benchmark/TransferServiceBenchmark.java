@@ -0,0 +1,87 @@
+package com.tenx.moneytransferservice.benchmark;
+
+import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.TransferConcurrencyControl;
+import com.tenx.moneytransferservice.service.TransferRetryExecutor;
+import com.tenx.moneytransferservice.service.TransferTransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service level transfer throughput on a few hot accounts, run it at 1, 8 and 64 threads through {@link BenchmarkRunner}.
+ * transferMoney is the entity based path with a separate account fetch, transfer is the single transaction path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class TransferServiceBenchmark {
+
+    @Param({"2", "16"})
+    int hotAccounts;
+    @Param({"optimistic", "striped", "pessimistic"})
+    String concurrencyMode;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private TransferTransactionService transferTransactionService;
+    private TransferRetryExecutor transferRetryExecutor;
+    private TransferConcurrencyControl transferConcurrencyControl;
+    private Long[] accountIds;
+
+    /**
+     * Transfers that still hit an optimistic lock conflict after every retry, reported next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Conflicts {
+        public long conflicts;
+    }
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = ServiceFixture.start(WebApplicationType.NONE, "transfer.concurrency.mode=" + concurrencyMode);
+        accountService = context.getBean(AccountService.class);
+        transferTransactionService = context.getBean(TransferTransactionService.class);
+        transferRetryExecutor = context.getBean(TransferRetryExecutor.class);
+        transferConcurrencyControl = context.getBean(TransferConcurrencyControl.class);
+        accountIds = ServiceFixture.seedAccounts(context, hotAccounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object transferMoney(Conflicts conflicts) {
+        Long[] pair = ServiceFixture.randomPair(accountIds);
+        try {
+            return transferRetryExecutor.execute(() -> transferConcurrencyControl.execute(pair[0], pair[1], () ->
+                    transferTransactionService.transferMoney(accountService.findAccount(pair[0]),
+                                                             accountService.findAccount(pair[1]),
+                                                             ServiceFixture.AMOUNT)));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            conflicts.conflicts++;
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Object transfer(Conflicts conflicts) {
+        Long[] pair = ServiceFixture.randomPair(accountIds);
+        try {
+            return transferRetryExecutor.execute(() -> transferConcurrencyControl.execute(pair[0], pair[1], () ->
+                    transferTransactionService.transfer(pair[0], pair[1], ServiceFixture.AMOUNT)));
+        } catch (ObjectOptimisticLockingFailureException e) {
+            conflicts.conflicts++;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tenx.moneytransferservice.cache;
+
+import com.tenx.moneytransferservice.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Read-through cache of accounts in front of the account repository.
+ * Entries are detached copies carrying the version they were read with, and every caller gets its own copy,
+ * so a cached account is never mutated in place. A stale entry cannot produce a wrong balance: writing it back
+ * fails the version check, the entry is evicted and the retried transfer reads the account again.
+ * Entries are only refreshed once the transaction that changed the account has committed.
+ */
+@Component
+public class AccountCache {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${account.cache.enabled:false}")
+    boolean enabled;
+    @Value("${account.cache.max-size:10000}")
+    int maxSize;
+    @Value("${account.cache.ttl:0s}")
+    Duration ttl;
+
+    private BoundedCache<Long, Account> accounts;
+    private Counter hits;
+    private Counter misses;
+
+    @PostConstruct
+    public void init() {
+        accounts = new BoundedCache<>(maxSize, ttl.toMillis());
+        hits = Counter.builder("account.cache.requests").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("account.cache.requests").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("account.cache.size", accounts, BoundedCache::size).register(meterRegistry);
+    }
+
+    /**
+     * @return a private copy of the cached account, null on a miss or when the cache is disabled
+     */
+    public Account get(Long accountId) {
+        if (!enabled) {
+            return null;
+        }
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return account.toBuilder().build();
+    }
+
+    public void put(Account account) {
+        if (enabled) {
+            accounts.put(account.getId(), account.toBuilder().build());
+        }
+    }
+
+    public void evict(Long accountId) {
+        if (enabled) {
+            accounts.remove(accountId);
+        }
+    }
+
+    /**
+     * caches the account once the current transaction commits, reading it at that point so the entry carries
+     * the version written by the flush. Evicts it instead on rollback. Without a transaction the account is cached right away.
+     */
+    public void refreshAfterCommit(Account account) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(account);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    put(account);
+                } else {
+                    evict(account.getId());
+                }
+            }
+        });
+    }
+
+    /**
+     * evicts the account when the current transaction completes, for writes that bypass the entity
+     */
+    public void evictAfterCompletion(Long accountId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(accountId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                evict(accountId);
+            }
+        });
+    }
+}
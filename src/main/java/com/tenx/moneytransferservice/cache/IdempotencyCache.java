@@ -0,0 +1,39 @@
+package com.tenx.moneytransferservice.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+
+/**
+ * Idempotency keys of recent transfers mapped to the transfer id they created,
+ * so client retries are answered without touching the database.
+ */
+@Component
+public class IdempotencyCache {
+
+    @Value("${transfer.idempotency.cache.max-size:100000}")
+    int maxSize;
+    @Value("${transfer.idempotency.cache.ttl:24h}")
+    Duration ttl;
+
+    private BoundedCache<String, Long> transferIds;
+
+    @PostConstruct
+    public void init() {
+        transferIds = new BoundedCache<>(maxSize, ttl.toMillis());
+    }
+
+    public Long get(String idempotencyKey) {
+        return transferIds.get(idempotencyKey);
+    }
+
+    public void put(String idempotencyKey, Long transferId) {
+        transferIds.put(idempotencyKey, transferId);
+    }
+
+    public void clear() {
+        transferIds.clear();
+    }
+}
@@ -1,29 +1,43 @@
 package com.tenx.moneytransferservice.controller;
 
 
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
 import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
 import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
 import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.TransferTransaction;
 import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.AccountStatementService;
+import com.tenx.moneytransferservice.service.AccountShardService;
+import com.tenx.moneytransferservice.service.TransferHistoryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/v1/accounts")
 public class AccountController {
 
     @Autowired
     AccountService accountService;
+    @Autowired
+    AccountShardService accountShardService;
+    @Autowired
+    TransferHistoryService transferHistoryService;
+    @Autowired
+    AccountStatementService accountStatementService;
 
     private static final Logger logger = LoggerFactory.getLogger(AccountController.class);
     /**
@@ -31,7 +45,8 @@ public class AccountController {
      * creates account
      * @param createAccount
      *      {
-     *     "currency": "GBP"
+     *     "currency": "GBP",
+     *     "balanceShards": 8 (optional)
      *     }
      */
     @PostMapping
@@ -42,4 +57,64 @@ public class AccountController {
                 .created(new URI("/v1/accounts/" + accountId)).build();
     }
 
+    /**
+     * returns the account with its balance, the sum of its balance shards for a sharded account
+     */
+    @GetMapping("/{accountId}")
+    public ResponseEntity<AccountDTO> getAccount(@PathVariable Long accountId) {
+        Account account = accountService.findAccount(accountId);
+        AccountDTO accountDTO = new AccountDTO();
+        accountDTO.setCurrency(account.getCurrency());
+        accountDTO.setBalanceShards(account.getBalanceShards());
+        accountDTO.setBalance(accountService.findBalance(accountId));
+        return ResponseEntity.ok(accountDTO);
+    }
+
+    /**
+     * re-spreads the balance over the given number of shards, 0 moves it back to the account
+     *      {
+     *     "balanceShards": 8
+     *     }
+     */
+    @PutMapping("/{accountId}/shards")
+    public ResponseEntity shardAccount(@PathVariable Long accountId, @RequestBody AccountDTO accountDTO) {
+        accountShardService.shardAccount(accountId, accountDTO.getBalanceShards() == null ? 0 : accountDTO.getBalanceShards());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * lists the transfers in and out of the account, newest first
+     * @param cursor next cursor of the previous page, omitted for the first page
+     */
+    @GetMapping("/{accountId}/transfers")
+    public ResponseEntity<TransferHistoryPageDTO> getTransfers(@PathVariable Long accountId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(transferHistoryService.findTransfers(accountId, cursor, limit));
+    }
+
+    /**
+     * returns the opening and closing balance of the account and its daily totals between the two days, both included
+     * @param from first day, yyyy-MM-dd
+     * @param to last day, yyyy-MM-dd, today when omitted
+     */
+    @GetMapping("/{accountId}/statement")
+    public ResponseEntity<StatementDTO> getStatement(@PathVariable Long accountId,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(accountStatementService.findStatement(accountId, from, to == null ? LocalDate.now() : to));
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<ResponseDTO> returnNotFound(AccountNotFoundException e) {
+        logger.error("Account not found {}",e.getMessage());
+        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(e.getMessage()).build(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ResponseDTO> returnBadRequest(IllegalArgumentException e) {
+        logger.error("Invalid account request {}",e.getMessage());
+        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(e.getMessage()).build(), HttpStatus.BAD_REQUEST);
+    }
+
 }
@@ -1,5 +1,7 @@
 package com.tenx.moneytransferservice.controller;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.tenx.moneytransferservice.model.Currency;
 import lombok.Data;
 
@@ -8,4 +10,16 @@ public class AccountDTO {
 
     private Currency currency;
 
+    /**
+     * optional, splits the balance over this many shard rows for accounts receiving many concurrent transfers
+     */
+    private Integer balanceShards;
+
+    /**
+     * minor units, only returned, ignored when creating an account
+     */
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private Long balance;
+
 }
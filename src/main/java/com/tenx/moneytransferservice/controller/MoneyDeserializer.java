@@ -0,0 +1,34 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.tenx.moneytransferservice.model.Money;
+
+import java.io.IOException;
+
+/**
+ * Reads an amount given as a JSON number or string, e.g. 100.25 or "100.25", straight from the token text into
+ * {@link Money} minor units, without going through a BigDecimal.
+ */
+public class MoneyDeserializer extends StdDeserializer<Long> {
+
+    public MoneyDeserializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public Long deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        try {
+            return Money.parse(parser.getText());
+        } catch (NumberFormatException e) {
+            throw InvalidFormatException.from(parser, e.getMessage(), parser.getText(), Long.class);
+        }
+    }
+}
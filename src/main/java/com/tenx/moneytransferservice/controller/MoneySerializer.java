@@ -0,0 +1,23 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.tenx.moneytransferservice.model.Money;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link Money} minor units as a plain JSON number with the minor unit decimals, e.g. 100.25
+ */
+public class MoneySerializer extends StdSerializer<Long> {
+
+    public MoneySerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long amount, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeNumber(Money.format(amount));
+    }
+}
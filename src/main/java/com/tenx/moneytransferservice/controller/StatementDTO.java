@@ -0,0 +1,37 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Statement of an account between two days, amounts in minor units returned as decimal amounts in JSON
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementDTO {
+
+    private Long accountId;
+    private LocalDate from;
+    private LocalDate to;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long openingBalance;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long debits;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long credits;
+    private long transferCount;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long closingBalance;
+    /**
+     * days with transfers, oldest first
+     */
+    private List<StatementDayDTO> days;
+}
@@ -0,0 +1,30 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Totals of one day with transfers, amounts in minor units returned as decimal amounts in JSON
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatementDayDTO {
+
+    private LocalDate day;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long openingBalance;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long debits;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long credits;
+    private long transferCount;
+    @JsonSerialize(using = MoneySerializer.class)
+    private long closingBalance;
+}
@@ -0,0 +1,33 @@
+package com.tenx.moneytransferservice.controller;
+
+import org.springframework.http.MediaType;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed layout binary encoding of a transfer request, an alternative to JSON for clients that send a lot of transfers.
+ * A frame is {@link #FRAME_SIZE} bytes: source account id, target account id and amount in minor units,
+ * each a big endian signed 64 bit integer. A batch is frames back to back, the count follows from the body length.
+ */
+public final class TransferFrame {
+
+    public static final String MEDIA_TYPE_VALUE = "application/x-transfer-frame";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+    public static final int FRAME_SIZE = 3 * Long.BYTES;
+
+    private TransferFrame() {
+    }
+
+    /**
+     * reads the frame at the position of the buffer straight into the DTO, advancing the position past it
+     */
+    public static TransferTransactionDTO decode(ByteBuffer buffer) {
+        return new TransferTransactionDTO(buffer.getLong(), buffer.getLong(), buffer.getLong());
+    }
+
+    public static void encode(ByteBuffer buffer, TransferTransactionDTO transfer) {
+        buffer.putLong(transfer.getSourceAccountId())
+              .putLong(transfer.getTargetAccountId())
+              .putLong(transfer.getAmount());
+    }
+}
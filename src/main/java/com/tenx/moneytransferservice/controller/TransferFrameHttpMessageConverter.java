@@ -0,0 +1,85 @@
+package com.tenx.moneytransferservice.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@link TransferFrame} request bodies into a {@link TransferTransactionDTO} or a list of them,
+ * picked by content negotiation when the request is sent as {@link TransferFrame#MEDIA_TYPE_VALUE}.
+ * The body is read into one array and the DTOs are decoded from it in place, without a token stream or strings.
+ * Responses are still written as JSON.
+ * Spring Boot adds every converter bean to the MVC converters.
+ */
+@Component
+@Profile("!reactive")
+public class TransferFrameHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final ResolvableType TRANSFER_LIST = ResolvableType.forClassWithGenerics(List.class, TransferTransactionDTO.class);
+
+    public TransferFrameHttpMessageConverter() {
+        super(TransferFrame.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TransferTransactionDTO.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return (TransferTransactionDTO.class == type || TRANSFER_LIST.isAssignableFrom(ResolvableType.forType(type)))
+                && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        ByteBuffer body = ByteBuffer.wrap(inputMessage.getBody().readAllBytes());
+        if (TransferTransactionDTO.class == type) {
+            return readTransfer(body, inputMessage);
+        }
+        if (body.remaining() % TransferFrame.FRAME_SIZE != 0) {
+            throw new HttpMessageNotReadableException("Transfer frames are " + TransferFrame.FRAME_SIZE + " bytes each : " + body.remaining(), inputMessage);
+        }
+        List<TransferTransactionDTO> transfers = new ArrayList<>(body.remaining() / TransferFrame.FRAME_SIZE);
+        while (body.hasRemaining()) {
+            transfers.add(TransferFrame.decode(body));
+        }
+        return transfers;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readTransfer(ByteBuffer.wrap(inputMessage.getBody().readAllBytes()), inputMessage);
+    }
+
+    private TransferTransactionDTO readTransfer(ByteBuffer body, HttpInputMessage inputMessage) {
+        if (body.remaining() != TransferFrame.FRAME_SIZE) {
+            throw new HttpMessageNotReadableException("Transfer frame must be " + TransferFrame.FRAME_SIZE + " bytes : " + body.remaining(), inputMessage);
+        }
+        return TransferFrame.decode(body);
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Transfer frames are only read");
+    }
+}
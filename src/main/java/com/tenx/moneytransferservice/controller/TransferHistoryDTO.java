@@ -0,0 +1,31 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transfer as listed in the history of an account, read straight from the columns without loading the entities
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferHistoryDTO {
+
+    private Long id;
+    private Long sourceAccountId;
+    private Long targetAccountId;
+    /**
+     * minor units, returned as a decimal amount in JSON
+     */
+    @JsonSerialize(using = MoneySerializer.class)
+    @JsonDeserialize(using = MoneyDeserializer.class)
+    private long amount;
+    private LocalDateTime createdAt;
+}
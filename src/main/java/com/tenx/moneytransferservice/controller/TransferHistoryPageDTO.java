@@ -0,0 +1,24 @@
+package com.tenx.moneytransferservice.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferHistoryPageDTO {
+
+    /**
+     * newest first
+     */
+    private List<TransferHistoryDTO> transfers;
+    /**
+     * cursor of the next page, null on the last page
+     */
+    private String next;
+}
@@ -0,0 +1,17 @@
+package com.tenx.moneytransferservice.controller;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransferResultDTO {
+
+    public enum Status {
+        COMPLETED, REJECTED
+    }
+
+    private Status status;
+    private Long transferId;
+    private String message;
+}
@@ -1,67 +1,197 @@
 package com.tenx.moneytransferservice.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
 import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
 import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
 import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
-import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
 import com.tenx.moneytransferservice.model.TransferTransaction;
-import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.BatchTransferService;
+import com.tenx.moneytransferservice.service.ExecutionMode;
+import com.tenx.moneytransferservice.service.IdempotencyService;
+import com.tenx.moneytransferservice.service.StreamTransferService;
+import com.tenx.moneytransferservice.service.TransferAsyncExecutor;
+import com.tenx.moneytransferservice.service.TransferConcurrencyControl;
+import com.tenx.moneytransferservice.service.TransferGroupCommitter;
+import com.tenx.moneytransferservice.service.TransferRetryExecutor;
 import com.tenx.moneytransferservice.service.TransferTransactionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
 import java.net.URI;
-import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/v1/transfers")
 public class TransferTransactionController {
-    @Autowired
-    AccountService accountService;
     @Autowired
     TransferTransactionService transferTransactionService;
+    @Autowired
+    TransferRetryExecutor transferRetryExecutor;
+    @Autowired
+    TransferConcurrencyControl transferConcurrencyControl;
+    @Autowired
+    BatchTransferService batchTransferService;
+    @Autowired
+    StreamTransferService streamTransferService;
+    @Autowired
+    IdempotencyService idempotencyService;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    TransferAsyncExecutor transferAsyncExecutor;
+    /** missing in ledger and event sourced modes */
+    @Autowired(required = false)
+    TransferGroupCommitter transferGroupCommitter;
+
+    @Value("${transfer.execution.mode:sync}")
+    ExecutionMode executionMode;
 
     private static final Logger logger = LoggerFactory.getLogger(TransferTransactionController.class);
+    private static final String CONCURRENT_MODIFY_MESSAGE = "Transfer failed, There is a modify operation inprogress on account, please try again";
+    private static final byte[] NOT_READABLE_BODY = responseBody("Request body is not readable");
+    private static final byte[] CONCURRENT_MODIFY_BODY = responseBody(CONCURRENT_MODIFY_MESSAGE);
+    private static final byte[] BUSY_BODY = responseBody("Transfer service is busy, please try again");
     /**
      *
-     * creates money transfer transaction
+     * creates money transfer transaction, a repeated Idempotency-Key returns the transfer created by the first request.
+     * Returns the response itself in sync execution mode and a CompletableFuture of it in async mode,
+     * Spring MVC picks the return value handler from the actual value.
      * @param transferTransactionDTO
      *      {
      *     "sourceAccountId": "102",
      *     "targetAccountId": "101",
      *     "amount": "100"
      *     }
+     *      or a single {@link TransferFrame} sent as application/x-transfer-frame
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ResponseEntity createMoneyTransferTransaction(@RequestBody TransferTransactionDTO transferTransactionDTO) throws URISyntaxException {
-        Account sourceAccount = accountService.findAccount(transferTransactionDTO.getSourceAccountId());
-        if(sourceAccount.getId().equals(transferTransactionDTO.getTargetAccountId())){
-            throw new TransferBetweenSameAccountException("Transfer between same account is not possible : " + sourceAccount.getId());
+    public Object createMoneyTransferTransaction(@RequestBody TransferTransactionDTO transferTransactionDTO,
+                                                 @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (executionMode == ExecutionMode.ASYNC) {
+            return transferAsyncExecutor.submit(() -> createTransfer(transferTransactionDTO, idempotencyKey));
+        }
+        return createTransfer(transferTransactionDTO, idempotencyKey);
+    }
+
+    private ResponseEntity createTransfer(TransferTransactionDTO transferTransactionDTO, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            Long previousTransferId = idempotencyService.findTransferId(idempotencyKey);
+            if (previousTransferId != null) {
+                return created(previousTransferId);
+            }
         }
-        Account targetAccount = accountService.findAccount(transferTransactionDTO.getTargetAccountId());
-        if(sourceAccount.getBalance().compareTo(transferTransactionDTO.getAmount()) < 0){
-            throw new InsufficientBalanceException("Insufficent Balance For : " + sourceAccount.getId());
+        TransferTransaction transaction;
+        try {
+            if (transferGroupCommitter != null && transferGroupCommitter.isEnabled()) {
+                // the committer retries conflicts per transfer, holding locks here would only keep groups from forming
+                transaction = transferGroupCommitter.transfer(transferTransactionDTO.getSourceAccountId(),
+                                                              transferTransactionDTO.getTargetAccountId(),
+                                                              transferTransactionDTO.getAmount(),
+                                                              idempotencyKey);
+            } else {
+                transaction = transferRetryExecutor.execute(() -> transferConcurrencyControl.execute(
+                        transferTransactionDTO.getSourceAccountId(),
+                        transferTransactionDTO.getTargetAccountId(),
+                        () -> transfer(transferTransactionDTO, idempotencyKey)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request with the same key committed first
+            Long previousTransferId = idempotencyKey == null ? null : idempotencyService.findTransferId(idempotencyKey);
+            if (previousTransferId == null) {
+                throw e;
+            }
+            return created(previousTransferId);
         }
-        if(sourceAccount.getCurrency() != targetAccount.getCurrency()){
-            throw new CurrencyMismatchException("Source and Target account has currency mismatch. Source Currency : " + sourceAccount.getCurrency() + "" +
-                    " Target Currency : " + targetAccount.getCurrency() );
+        if (idempotencyKey != null) {
+            idempotencyService.remember(idempotencyKey, transaction.getId());
         }
-        TransferTransaction transaction = transferTransactionService.transferMoney(sourceAccount, targetAccount, transferTransactionDTO.getAmount() );
+        return created(transaction.getId());
+    }
+
+    private ResponseEntity created(Long transferId) {
         return ResponseEntity
-            .created(new URI("/v1/transfers/" + transaction.getId())).build();
+            .created(URI.create("/v1/transfers/" + transferId)).build();
+    }
+
+    /**
+     * runs once per retry attempt, accounts are loaded and validated by the service inside the transfer transaction
+     */
+    private TransferTransaction transfer(TransferTransactionDTO transferTransactionDTO, String idempotencyKey) {
+        return transferTransactionService.transfer(transferTransactionDTO.getSourceAccountId(),
+                                                   transferTransactionDTO.getTargetAccountId(),
+                                                   transferTransactionDTO.getAmount(),
+                                                   idempotencyKey);
+    }
+
+    /**
+     *
+     * applies a batch of transfers in one transaction, returning a result for each transfer in request order.
+     * Runs on the transfer executor in async execution mode.
+     * @param transfers
+     *      [
+     *      { "sourceAccountId": "102", "targetAccountId": "101", "amount": "100" },
+     *      { "sourceAccountId": "101", "targetAccountId": "103", "amount": "50" }
+     *      ]
+     *      or back to back {@link TransferFrame}s sent as application/x-transfer-frame
+     */
+    @PostMapping("/batch")
+    public Object createMoneyTransferTransactionBatch(@RequestBody List<TransferTransactionDTO> transfers) {
+        if (executionMode == ExecutionMode.ASYNC) {
+            return transferAsyncExecutor.submit(() -> ResponseEntity.ok(transferRetryExecutor.execute(() -> batchTransferService.transferBatch(transfers))));
+        }
+        return ResponseEntity.ok(transferRetryExecutor.execute(() -> batchTransferService.transferBatch(transfers)));
+    }
+
+    /**
+     *
+     * applies a newline delimited stream of transfers of any size, committing them in chunks of transfer.stream.chunk-size
+     * and streaming one result line back per transfer
+     * @param request
+     *      { "sourceAccountId": "102", "targetAccountId": "101", "amount": "100" }
+     *      { "sourceAccountId": "101", "targetAccountId": "103", "amount": "50" }
+     */
+    @PostMapping(path = "/stream", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createMoneyTransferTransactionStream(HttpServletRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> streamTransferService.transferStream(request.getInputStream(), output));
+    }
+
+    /**
+     *
+     * applies a stream of back to back {@link TransferFrame}s the same way, streaming newline delimited JSON results back
+     */
+    @PostMapping(path = "/stream", consumes = TransferFrame.MEDIA_TYPE_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> createMoneyTransferTransactionFrameStream(HttpServletRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(output -> streamTransferService.transferFrameStream(request.getInputStream(), output));
     }
 
     @ExceptionHandler(AccountNotFoundException.class)
     public ResponseEntity<ResponseDTO> returnNotFound(AccountNotFoundException e) {
-        logger.error("Account not found {}",e.getMessage());
-        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(e.getMessage()).build(), HttpStatus.NOT_FOUND);
+        String message = e.getMessage();
+        logger.error("Account not found {}",message);
+        transferMetrics.rejected(e);
+        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(message).build(), HttpStatus.NOT_FOUND);
     }
 
     @ExceptionHandler({
@@ -70,15 +200,30 @@ public class TransferTransactionController {
             CurrencyMismatchException.class
     })
     public ResponseEntity<ResponseDTO> returnNotAcceptable(RuntimeException e) {
-        logger.error("Validation rules are not match {}",e.getMessage());
-        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(e.getMessage()).build(), HttpStatus.BAD_REQUEST);
+        String message = e.getMessage();
+        logger.error("Validation rules are not match {}",message);
+        transferMetrics.rejected(e);
+        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(message).build(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<byte[]> returnBadRequest(HttpMessageNotReadableException e) {
+        logger.error("Request body is not readable {}",e.getMessage());
+        return fixedBody(HttpStatus.BAD_REQUEST, NOT_READABLE_BODY);
     }
 
     @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
-    public ResponseEntity<ResponseDTO> returnConcurrentAccountModify(ObjectOptimisticLockingFailureException e) {
-        logger.error("Concurrent Modify exceptions has occurred {} {}","Transfer failed, There is a modify operation inprogress on account, please try again",e.getMessage());
-        logger.error("Exception occurred {}",e.getMessage());
-        return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message("Transfer failed, There is a modify operation inprogress on account, please try again").build(), HttpStatus.INTERNAL_SERVER_ERROR);
+    public ResponseEntity<byte[]> returnConcurrentAccountModify(ObjectOptimisticLockingFailureException e) {
+        logger.error("Concurrent Modify exceptions has occurred {} {}",CONCURRENT_MODIFY_MESSAGE,e.getMessage());
+        transferMetrics.rejected(e);
+        return fixedBody(HttpStatus.INTERNAL_SERVER_ERROR, CONCURRENT_MODIFY_BODY);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<byte[]> returnServiceUnavailable(RejectedExecutionException e) {
+        logger.error("Transfer executor is saturated {}",e.getMessage());
+        transferMetrics.rejected(e);
+        return fixedBody(HttpStatus.SERVICE_UNAVAILABLE, BUSY_BODY);
     }
 
     @ExceptionHandler(Exception.class)
@@ -86,4 +231,19 @@ public class TransferTransactionController {
         logger.error("Exception has occurred {}",e.getMessage());
         return new ResponseEntity<ResponseDTO>(ResponseDTO.builder().message(e.getMessage()).build(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private static ResponseEntity<byte[]> fixedBody(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * serializes a {@link ResponseDTO} once, for error responses whose message never changes
+     */
+    private static byte[] responseBody(String message) {
+        try {
+            return new ObjectMapper().writeValueAsBytes(ResponseDTO.builder().message(message).build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
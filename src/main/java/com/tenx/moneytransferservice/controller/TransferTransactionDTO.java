@@ -1,15 +1,24 @@
 package com.tenx.moneytransferservice.controller;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
-
-import java.math.BigDecimal;
+import lombok.NoArgsConstructor;
 
 @Data
 @Builder
+@JsonDeserialize(using = TransferTransactionDTODeserializer.class)
+@NoArgsConstructor
+@AllArgsConstructor
 public class TransferTransactionDTO {
 
     private Long sourceAccountId;
     private Long targetAccountId;
-    private BigDecimal amount;
+    /**
+     * minor units, given as a decimal amount in JSON
+     */
+    @JsonSerialize(using = MoneySerializer.class)
+    private long amount;
 }
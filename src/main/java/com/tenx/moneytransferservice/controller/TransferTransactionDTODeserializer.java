@@ -0,0 +1,96 @@
+package com.tenx.moneytransferservice.controller;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.tenx.moneytransferservice.model.Money;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+/**
+ * Reads a transfer request straight off the token stream into the all args constructor, instead of the bean deserializer
+ * setting properties one by one. Account ids and the amount are parsed from the parser's text buffer,
+ * so no strings are created unless the request is rejected. Unknown properties are handled as for any other bean.
+ * A missing amount is rejected like a null one rather than read as zero.
+ */
+public class TransferTransactionDTODeserializer extends StdDeserializer<TransferTransactionDTO> {
+
+    public TransferTransactionDTODeserializer() {
+        super(TransferTransactionDTO.class);
+    }
+
+    @Override
+    public TransferTransactionDTO deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (TransferTransactionDTO) context.handleUnexpectedToken(TransferTransactionDTO.class, parser);
+        }
+        Long sourceAccountId = null;
+        Long targetAccountId = null;
+        long amount = 0;
+        boolean amountRead = false;
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            switch (name) {
+                case "sourceAccountId":
+                    sourceAccountId = accountId(parser, context);
+                    break;
+                case "targetAccountId":
+                    targetAccountId = accountId(parser, context);
+                    break;
+                case "amount":
+                    amount = amount(parser, context);
+                    amountRead = true;
+                    break;
+                default:
+                    context.handleUnknownProperty(parser, this, TransferTransactionDTO.class, name);
+            }
+        }
+        if (!amountRead) {
+            return (TransferTransactionDTO) context.reportInputMismatch(this, "Missing transfer amount");
+        }
+        return new TransferTransactionDTO(sourceAccountId, targetAccountId, amount);
+    }
+
+    private static Long accountId(JsonParser parser, DeserializationContext context) throws IOException {
+        switch (parser.currentToken()) {
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                try {
+                    return Long.parseLong(text(parser), 0, parser.getTextLength(), 10);
+                } catch (NumberFormatException e) {
+                    throw InvalidFormatException.from(parser, "Invalid account id : " + parser.getText(), parser.getText(), Long.class);
+                }
+            default:
+                return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+    }
+
+    /**
+     * same rules as {@link MoneyDeserializer}
+     */
+    private static long amount(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+            return (Long) context.handleUnexpectedToken(Long.class, parser);
+        }
+        try {
+            return Money.parse(text(parser));
+        } catch (NumberFormatException e) {
+            throw InvalidFormatException.from(parser, e.getMessage(), parser.getText(), Long.class);
+        }
+    }
+
+    private static CharSequence text(JsonParser parser) throws IOException {
+        return CharBuffer.wrap(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+    }
+}
@@ -0,0 +1,218 @@
+package com.tenx.moneytransferservice.eventsourced;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountBalanceSnapshot;
+import com.tenx.moneytransferservice.model.AccountPartitions;
+import com.tenx.moneytransferservice.model.AccountEvent;
+import com.tenx.moneytransferservice.model.AccountEventTotal;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceSnapshotRepository;
+import com.tenx.moneytransferservice.repository.AccountEventRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Balances of event sourced mode, projected in memory from the opening balance of every account, its latest
+ * {@link AccountBalanceSnapshot} and the {@link AccountEvent}s after it. Snapshots are written every
+ * {@code eventsourced.snapshot.interval-ms} for the accounts that changed, so a restart only replays recent events.
+ * Replay runs in parallel over {@code eventsourced.shards} partitions of the accounts by id.
+ * A balance is only changed while its account is locked through {@link #execute}.
+ */
+@Component
+@Profile("eventsourced")
+public class AccountBalanceProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountBalanceProjection.class);
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    AccountEventRepository accountEventRepository;
+    @Autowired
+    AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Value("${eventsourced.shards:4}")
+    int shardCount;
+    @Value("${eventsourced.lock-stripes:1024}")
+    int stripeCount;
+
+    private final ConcurrentMap<Long, AccountState> states = new ConcurrentHashMap<>();
+    /** last event id of every account in the snapshot table */
+    private final Map<Long, Long> snapshotted = new ConcurrentHashMap<>();
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void start() throws InterruptedException {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        replay();
+    }
+
+    /**
+     * rebuilds every balance from the snapshots and the events after them, one thread per shard
+     */
+    public void replay() throws InterruptedException {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(shardCount, runnable -> {
+            Thread thread = new Thread(runnable, "eventsourced-replay-" + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<Integer>> shards = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int replayedShard = shard;
+                shards.add(executor.submit(() -> replay(replayedShard)));
+            }
+            int accounts = 0;
+            for (Future<Integer> shard : shards) {
+                accounts += shard.get();
+            }
+            logger.info("Replayed the balances of {} accounts over {} shards", accounts, shardCount);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int replay(int shard) {
+        return transactionTemplate.execute(status -> {
+            Map<Long, AccountState> shardStates = new HashMap<>();
+            for (Account account : accountRepository.findByShard(shard, shardCount)) {
+                shardStates.put(account.getId(), new AccountState(account.getBalance(), 0));
+            }
+            for (AccountBalanceSnapshot snapshot : accountBalanceSnapshotRepository.findByShard(shard, shardCount)) {
+                shardStates.put(snapshot.getAccountId(), new AccountState(snapshot.getBalance(), snapshot.getLastEventId()));
+                snapshotted.put(snapshot.getAccountId(), snapshot.getLastEventId());
+            }
+            for (AccountEventTotal total : accountEventRepository.sumAfterSnapshots(shard, shardCount)) {
+                AccountState state = shardStates.get(total.getAccountId());
+                if (state != null) {
+                    shardStates.put(total.getAccountId(), new AccountState(Money.add(state.balance, total.getAmount()), total.getLastEventId()));
+                }
+            }
+            states.putAll(shardStates);
+            return shardStates.size();
+        });
+    }
+
+    /**
+     * runs the action holding the locks of both accounts, taken in ascending stripe order
+     */
+    public <T> T execute(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        int sourceStripe = stripe(sourceAccountId);
+        int targetStripe = stripe(targetAccountId);
+        ReentrantLock first = stripes[Math.min(sourceStripe, targetStripe)];
+        ReentrantLock second = stripes[Math.max(sourceStripe, targetStripe)];
+        first.lock();
+        try {
+            second.lock();
+            try {
+                return action.get();
+            } finally {
+                second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    public long balance(Long accountId) throws AccountNotFoundException {
+        return state(accountId).balance;
+    }
+
+    /**
+     * applies a committed event, the account has to be locked through {@link #execute}
+     */
+    public void apply(AccountEvent event) {
+        AccountState state = state(event.getAccountId());
+        states.put(event.getAccountId(), new AccountState(Money.add(state.balance, event.getAmount()), event.getId()));
+    }
+
+    /**
+     * writes the balance of every account changed since the last snapshot
+     */
+    @Scheduled(fixedDelayString = "${eventsourced.snapshot.interval-ms:5000}")
+    @PreDestroy
+    public synchronized void snapshot() {
+        List<AccountBalanceSnapshot> snapshots = new ArrayList<>();
+        for (Map.Entry<Long, AccountState> entry : states.entrySet()) {
+            AccountState state = entry.getValue();
+            if (state.lastEventId > snapshotted.getOrDefault(entry.getKey(), 0L)) {
+                snapshots.add(AccountBalanceSnapshot.builder().accountId(entry.getKey())
+                                                              .balance(state.balance)
+                                                              .lastEventId(state.lastEventId)
+                                                              .build());
+            }
+        }
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> accountBalanceSnapshotRepository.saveAll(snapshots));
+        snapshots.forEach(snapshot -> snapshotted.put(snapshot.getAccountId(), snapshot.getLastEventId()));
+        logger.debug("Balance snapshot written for {} accounts", snapshots.size());
+    }
+
+    /**
+     * accounts created after the replay are loaded on first use
+     */
+    private AccountState state(Long accountId) {
+        return states.computeIfAbsent(accountId, id -> transactionTemplate.execute(status -> {
+            Account account = accountRepository.findById(id)
+                                               .orElseThrow(() -> new AccountNotFoundException(id));
+            AccountState state = accountBalanceSnapshotRepository.findById(id)
+                                                                 .map(snapshot -> new AccountState(snapshot.getBalance(), snapshot.getLastEventId()))
+                                                                 .orElseGet(() -> new AccountState(account.getBalance(), 0));
+            for (AccountEventTotal total : accountEventRepository.sumAfter(id, state.lastEventId)) {
+                state = new AccountState(Money.add(state.balance, total.getAmount()), total.getLastEventId());
+            }
+            return state;
+        }));
+    }
+
+    private int stripe(Long accountId) {
+        return AccountPartitions.of(accountId, stripeCount);
+    }
+
+    private static final class AccountState {
+        private final long balance;
+        private final long lastEventId;
+
+        private AccountState(long balance, long lastEventId) {
+            this.balance = balance;
+            this.lastEventId = lastEventId;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.tenx.moneytransferservice.eventsourced;
+
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.BatchTransferService;
+import com.tenx.moneytransferservice.service.TransferValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batch transfers in event sourced mode, applied item by item since funds are checked by the projection
+ * rather than the account table.
+ */
+@Service
+@Profile("eventsourced")
+public class EventSourcedBatchTransferService implements BatchTransferService {
+
+    @Autowired
+    AccountService accountService;
+    @Autowired
+    EventSourcedTransferTransactionService eventSourcedTransferTransactionService;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransferMetrics transferMetrics;
+
+    @Override
+    public List<TransferResultDTO> transferBatch(List<TransferTransactionDTO> transfers) {
+        List<TransferResultDTO> results = new ArrayList<>(transfers.size());
+        for (TransferTransactionDTO transfer : transfers) {
+            try {
+                Account sourceAccount = accountService.findAccount(transfer.getSourceAccountId());
+                Account targetAccount = accountService.findAccount(transfer.getTargetAccountId());
+                transferValidator.validateAccounts(sourceAccount, targetAccount);
+                Long transferId = eventSourcedTransferTransactionService.transferMoney(sourceAccount, targetAccount, transfer.getAmount()).getId();
+                results.add(TransferResultDTO.builder().status(TransferResultDTO.Status.COMPLETED).transferId(transferId).build());
+            } catch (AccountNotFoundException | TransferBetweenSameAccountException
+                    | InsufficientBalanceException | CurrencyMismatchException e) {
+                transferMetrics.rejected(e);
+                results.add(TransferResultDTO.builder().status(TransferResultDTO.Status.REJECTED).message(e.getMessage()).build());
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,132 @@
+package com.tenx.moneytransferservice.eventsourced;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountEvent;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.AccountEventRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.TransferTransactionService;
+import com.tenx.moneytransferservice.service.TransferValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Transfer service of event sourced mode. Account rows keep their opening balance, a transfer appends a debit and
+ * a credit {@link AccountEvent} next to its transfer row and funds are checked against the {@link AccountBalanceProjection}.
+ * The events are written in their own transaction while both accounts are locked, and applied to the projection once
+ * it committed, so a transfer rolled back by a caller never reaches the projection.
+ */
+@Service
+@Profile("eventsourced")
+public class EventSourcedTransferTransactionService implements TransferTransactionService {
+
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    AccountEventRepository accountEventRepository;
+    @Autowired
+    AccountBalanceProjection accountBalanceProjection;
+    @Autowired
+    AccountService accountService;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate appendTransaction;
+
+    @PostConstruct
+    public void start() {
+        appendTransaction = new TransactionTemplate(transactionManager);
+        appendTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, long amount) {
+        return transferMetrics.timeTransfer("transferMoney", () -> apply(sourceAccount, targetAccount, amount, null));
+    }
+
+    @Override
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount) {
+        return transfer(sourceAccountId, targetAccountId, amount, null);
+    }
+
+    /**
+     * Funds are checked against the projection, so only the account level rules are validated up front.
+     */
+    @Override
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        return transferMetrics.timeTransfer("transfer", () -> {
+            List<Account> accounts = accountService.findAccounts(Arrays.asList(sourceAccountId, targetAccountId));
+            Account sourceAccount = account(accounts, sourceAccountId);
+            Account targetAccount = account(accounts, targetAccountId);
+            transferValidator.validateAccounts(sourceAccount, targetAccount);
+            return apply(sourceAccount, targetAccount, amount, idempotencyKey);
+        });
+    }
+
+    private TransferTransaction apply(Account sourceAccount, Account targetAccount, long amount, String idempotencyKey) {
+        Long sourceAccountId = sourceAccount.getId();
+        Long targetAccountId = targetAccount.getId();
+        return accountBalanceProjection.execute(sourceAccountId, targetAccountId, () -> {
+            if (accountBalanceProjection.balance(sourceAccountId) < amount) {
+                throw new InsufficientBalanceException(sourceAccountId);
+            }
+            // loads the target before its first event is appended
+            accountBalanceProjection.balance(targetAccountId);
+
+            AccountEvent[] events = new AccountEvent[2];
+            TransferTransaction transferTransaction = appendTransaction.execute(status -> {
+                LocalDateTime createdAt = LocalDateTime.now();
+                TransferTransaction saved = transferTransactionRepository.save(TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                                                                           .targetAccount(targetAccount)
+                                                                                                           .amount(amount)
+                                                                                                           .createdAt(createdAt)
+                                                                                                           .idempotencyKey(idempotencyKey)
+                                                                                                           .build());
+                events[0] = accountEventRepository.save(event(sourceAccountId, saved.getId(), -amount, createdAt));
+                events[1] = accountEventRepository.save(event(targetAccountId, saved.getId(), amount, createdAt));
+                transferOutbox.append(saved);
+                return saved;
+            });
+            accountBalanceProjection.apply(events[0]);
+            accountBalanceProjection.apply(events[1]);
+            return transferTransaction;
+        });
+    }
+
+    private static AccountEvent event(Long accountId, Long transferId, long amount, LocalDateTime createdAt) {
+        return AccountEvent.builder().accountId(accountId)
+                                     .transferId(transferId)
+                                     .amount(amount)
+                                     .createdAt(createdAt)
+                                     .build();
+    }
+
+    private Account account(List<Account> accounts, Long accountId) {
+        for (Account account : accounts) {
+            if (account.getId().equals(accountId)) {
+                return account;
+            }
+        }
+        throw new AccountNotFoundException(accountId);
+    }
+}
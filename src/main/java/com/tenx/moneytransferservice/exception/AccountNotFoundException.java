@@ -2,8 +2,27 @@ package com.tenx.moneytransferservice.exception;
 
 import java.util.NoSuchElementException;
 
+/**
+ * Expected rejection, thrown without a stack trace and with its message only built when it is read.
+ */
 public class AccountNotFoundException extends NoSuchElementException {
-    public AccountNotFoundException(String message){
-        super(message);
+    private final Long accountId;
+
+    public AccountNotFoundException(Long accountId){
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Account does not exist : " + accountId;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
@@ -1,7 +1,34 @@
 package com.tenx.moneytransferservice.exception;
 
+import com.tenx.moneytransferservice.model.Currency;
+
+/**
+ * Expected rejection, thrown without a stack trace and with its message only built when it is read.
+ */
 public class CurrencyMismatchException extends RuntimeException {
-    public CurrencyMismatchException(String message){
-        super(message);
+    private final Currency sourceCurrency;
+    private final Currency targetCurrency;
+
+    public CurrencyMismatchException(Currency sourceCurrency, Currency targetCurrency){
+        this.sourceCurrency = sourceCurrency;
+        this.targetCurrency = targetCurrency;
+    }
+
+    public Currency getSourceCurrency() {
+        return sourceCurrency;
+    }
+
+    public Currency getTargetCurrency() {
+        return targetCurrency;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Source and Target account has currency mismatch. Source Currency : " + sourceCurrency + " Target Currency : " + targetCurrency;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
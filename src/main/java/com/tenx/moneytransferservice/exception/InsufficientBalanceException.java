@@ -1,7 +1,26 @@
 package com.tenx.moneytransferservice.exception;
 
+/**
+ * Expected rejection, thrown without a stack trace and with its message only built when it is read.
+ */
 public class InsufficientBalanceException extends RuntimeException{
-    public InsufficientBalanceException(String message){
-        super(message);
+    private final Long accountId;
+
+    public InsufficientBalanceException(Long accountId){
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Insufficent Balance For : " + accountId;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
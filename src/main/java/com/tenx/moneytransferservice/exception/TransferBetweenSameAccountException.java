@@ -1,7 +1,26 @@
 package com.tenx.moneytransferservice.exception;
 
+/**
+ * Expected rejection, thrown without a stack trace and with its message only built when it is read.
+ */
 public class TransferBetweenSameAccountException extends RuntimeException{
-    public TransferBetweenSameAccountException(String message){
-        super(message);
+    private final Long accountId;
+
+    public TransferBetweenSameAccountException(Long accountId){
+        this.accountId = accountId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Transfer between same account is not possible : " + accountId;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
     }
 }
@@ -0,0 +1,15 @@
+package com.tenx.moneytransferservice.journal;
+
+/**
+ * When appended {@link TransferJournal} records are forced to disk.
+ */
+public enum FsyncPolicy {
+    /** every append forces the segment before it returns */
+    EVERY_WRITE,
+    /** a background thread forces the segment at a fixed interval, a crash loses at most the last interval */
+    INTERVAL,
+    /** {@link TransferJournal#awaitDurable} waits for a force that covers the record, concurrent appends share one force */
+    GROUP,
+    /** left to the operating system, records survive a JVM crash but not a machine crash */
+    NONE
+}
@@ -0,0 +1,80 @@
+package com.tenx.moneytransferservice.journal;
+
+import com.tenx.moneytransferservice.model.TransferTransaction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Record payload: transfer id, source and target account ids, amount and createdAt in epoch milliseconds as
+ * variable length longs, 7 bits per byte, then the idempotency key as UTF-8 behind its length plus one, 0 for none.
+ * The amount is zigzag encoded so a negative amount does not take ten bytes.
+ */
+final class JournalCodec {
+
+    static final int MAX_IDEMPOTENCY_KEY_BYTES = 1024;
+    /** five longs of at most ten bytes each and the key behind its length */
+    static final int MAX_PAYLOAD_SIZE = 5 * 10 + 5 + MAX_IDEMPOTENCY_KEY_BYTES;
+
+    private JournalCodec() {
+    }
+
+    static void encode(ByteBuffer buffer, long transferId, TransferTransaction transfer) {
+        byte[] key = transfer.getIdempotencyKey() == null ? null : transfer.getIdempotencyKey().getBytes(StandardCharsets.UTF_8);
+        if (key != null && key.length > MAX_IDEMPOTENCY_KEY_BYTES) {
+            throw new IllegalArgumentException("Idempotency key longer than " + MAX_IDEMPOTENCY_KEY_BYTES + " bytes");
+        }
+        putVarLong(buffer, transferId);
+        putVarLong(buffer, transfer.getSourceAccount().getId());
+        putVarLong(buffer, transfer.getTargetAccount().getId());
+        long amount = transfer.getAmount();
+        putVarLong(buffer, (amount << 1) ^ (amount >> 63));
+        putVarLong(buffer, transfer.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+        if (key == null) {
+            putVarLong(buffer, 0);
+        } else {
+            putVarLong(buffer, key.length + 1L);
+            buffer.put(key);
+        }
+    }
+
+    static TransferJournalRecord decode(ByteBuffer buffer) {
+        long transferId = getVarLong(buffer);
+        long sourceAccountId = getVarLong(buffer);
+        long targetAccountId = getVarLong(buffer);
+        long zigzag = getVarLong(buffer);
+        long amount = (zigzag >>> 1) ^ -(zigzag & 1);
+        LocalDateTime createdAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(getVarLong(buffer)), ZoneOffset.UTC);
+        int keyLength = (int) getVarLong(buffer) - 1;
+        String idempotencyKey = null;
+        if (keyLength >= 0) {
+            byte[] key = new byte[keyLength];
+            buffer.get(key);
+            idempotencyKey = new String(key, StandardCharsets.UTF_8);
+        }
+        return new TransferJournalRecord(transferId, sourceAccountId, targetAccountId, amount, createdAt, idempotencyKey);
+    }
+
+    private static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed journal record");
+    }
+}
@@ -0,0 +1,175 @@
+package com.tenx.moneytransferservice.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory mapped file of the {@link TransferJournal}, named after the id of its first record.
+ * Layout is a header holding a format marker, the first id and flags, followed by records of an int payload length,
+ * the CRC32C of the payload and the payload. The file is mapped at its full size up front, a zero length ends the records.
+ */
+final class JournalSegment {
+
+    /** "TXSEGM" followed by the format version */
+    private static final long FORMAT = 0x54585345474D0001L;
+    static final int HEADER_SIZE = 3 * Long.BYTES;
+    static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    /** flag of a segment created by {@link TransferJournal#reset}, the segments before it are not replayed */
+    private static final long CHECKPOINT = 1L;
+    private static final int FLAGS_OFFSET = 2 * Long.BYTES;
+    private static final Pattern NAME = Pattern.compile("\\d{20}\\.journal");
+
+    private final Path path;
+    private final long baseId;
+    /** positioned at the end of the records, appends are serialized by the journal */
+    private final MappedByteBuffer buffer;
+
+    private JournalSegment(Path path, long baseId, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseId = baseId;
+        this.buffer = buffer;
+    }
+
+    static JournalSegment create(Path directory, long baseId, boolean checkpoint, int size) throws IOException {
+        Path path = directory.resolve(String.format("%020d.journal", baseId));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putLong(FORMAT).putLong(baseId).putLong(checkpoint ? CHECKPOINT : 0L);
+            buffer.force();
+            return new JournalSegment(path, baseId, buffer);
+        }
+    }
+
+    /**
+     * maps an existing segment, positioned at its first record
+     */
+    static JournalSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new IOException("Invalid journal segment " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (buffer.getLong() != FORMAT) {
+                throw new IOException("Unsupported journal segment format in " + path);
+            }
+            long baseId = buffer.getLong();
+            buffer.position(HEADER_SIZE);
+            return new JournalSegment(path, baseId, buffer);
+        }
+    }
+
+    /**
+     * @return the segment files of the directory, oldest first
+     */
+    static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> NAME.matcher(file.getFileName().toString()).matches())
+                        .sorted()
+                        .collect(Collectors.toList());
+        }
+    }
+
+    static long baseId(Path path) {
+        return Long.parseLong(path.getFileName().toString().substring(0, 20));
+    }
+
+    static boolean isCheckpoint(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read the whole header
+            }
+            return header.position() == HEADER_SIZE && header.getLong(0) == FORMAT && (header.getLong(FLAGS_OFFSET) & CHECKPOINT) != 0;
+        }
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long baseId() {
+        return baseId;
+    }
+
+    /**
+     * reads the records from the start without moving the append position
+     * @return the position after the last record with a valid checksum
+     */
+    int read(Consumer<TransferJournalRecord> consumer) {
+        ByteBuffer records = buffer.duplicate();
+        records.position(HEADER_SIZE);
+        CRC32C crc = new CRC32C();
+        while (records.remaining() >= RECORD_HEADER_SIZE) {
+            int start = records.position();
+            int length = records.getInt(start);
+            if (length <= 0 || length > records.remaining() - RECORD_HEADER_SIZE) {
+                break;
+            }
+            ByteBuffer payload = records.duplicate();
+            payload.position(start + RECORD_HEADER_SIZE).limit(start + RECORD_HEADER_SIZE + length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != records.getInt(start + Integer.BYTES)) {
+                break;
+            }
+            consumer.accept(JournalCodec.decode(payload));
+            records.position(start + RECORD_HEADER_SIZE + length);
+        }
+        return records.position();
+    }
+
+    /**
+     * @return true when the records end cleanly at the position, false when a torn or corrupt record follows
+     */
+    boolean endsAt(int position) {
+        return buffer.limit() - position < RECORD_HEADER_SIZE || buffer.getInt(position) == 0;
+    }
+
+    /**
+     * zeroes everything from the position on and appends from there
+     */
+    void truncate(int position) {
+        for (int i = position; i < buffer.limit(); i++) {
+            buffer.put(i, (byte) 0);
+        }
+        buffer.force();
+        buffer.position(position);
+    }
+
+    void seek(int position) {
+        buffer.position(position);
+    }
+
+    void markCheckpoint() {
+        buffer.putLong(FLAGS_OFFSET, buffer.getLong(FLAGS_OFFSET) | CHECKPOINT);
+        buffer.force();
+    }
+
+    int remaining() {
+        return buffer.remaining();
+    }
+
+    boolean isEmpty() {
+        return buffer.position() == HEADER_SIZE;
+    }
+
+    void append(ByteBuffer payload, int checksum) {
+        buffer.putInt(payload.remaining()).putInt(checksum).put(payload);
+    }
+
+    void force() {
+        buffer.force();
+    }
+}
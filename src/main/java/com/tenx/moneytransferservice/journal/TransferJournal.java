@@ -0,0 +1,285 @@
+package com.tenx.moneytransferservice.journal;
+
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of transfers in a directory of memory mapped {@link JournalSegment}s. Appending copies a compact
+ * binary record into the mapped file, so it costs no system call unless the {@link FsyncPolicy} forces the segment.
+ * The journal assigns transfer ids in append order. A segment that is full is forced and the next one is started.
+ * On open, a torn or corrupt record at the tail of the last segment and everything after it are truncated,
+ * a corrupt record in an earlier segment fails {@link #replay}.
+ */
+public class TransferJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferJournal.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final FsyncPolicy fsyncPolicy;
+    /** reused for every append, appends are serialized */
+    private final ByteBuffer payload = ByteBuffer.allocate(JournalCodec.MAX_PAYLOAD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private JournalSegment active;
+    private long sequence;
+    /** id of the first record {@link #replay} reads */
+    private long firstId;
+
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition synced = syncLock.newCondition();
+    private boolean syncing;
+    private long durable;
+    private ScheduledExecutorService flusher;
+
+    private TransferJournal(Path directory, int segmentSize, FsyncPolicy fsyncPolicy) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsyncPolicy = fsyncPolicy;
+    }
+
+    /**
+     * @param fsyncInterval how often segments are forced with {@link FsyncPolicy#INTERVAL}
+     */
+    public static TransferJournal open(Path directory, int segmentSize, FsyncPolicy fsyncPolicy, Duration fsyncInterval) throws IOException {
+        int minimumSize = JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE + JournalCodec.MAX_PAYLOAD_SIZE;
+        if (segmentSize < minimumSize) {
+            throw new IllegalArgumentException("Journal segment size must be at least " + minimumSize + " bytes : " + segmentSize);
+        }
+        Files.createDirectories(directory);
+        TransferJournal journal = new TransferJournal(directory, segmentSize, fsyncPolicy);
+        journal.recover();
+        if (fsyncPolicy == FsyncPolicy.INTERVAL) {
+            journal.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "transfer-journal-fsync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, fsyncInterval.toMillis());
+            journal.flusher.scheduleWithFixedDelay(journal::forceActive, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+        return journal;
+    }
+
+    private void recover() throws IOException {
+        List<Path> segments = JournalSegment.list(directory);
+        int first = 0;
+        for (int i = segments.size() - 1; i > 0; i--) {
+            if (JournalSegment.isCheckpoint(segments.get(i))) {
+                first = i;
+                break;
+            }
+        }
+        // left behind by a reset that did not finish deleting them
+        for (Path segment : segments.subList(0, first)) {
+            Files.delete(segment);
+        }
+        segments = segments.subList(first, segments.size());
+        if (segments.isEmpty()) {
+            active = JournalSegment.create(directory, 1L, true, segmentSize);
+            syncDirectory();
+            sequence = 0L;
+            firstId = 1L;
+            return;
+        }
+        active = JournalSegment.open(segments.get(segments.size() - 1));
+        long[] lastId = {active.baseId() - 1};
+        int end = active.read(record -> lastId[0] = record.getTransferId());
+        if (active.endsAt(end)) {
+            active.seek(end);
+        } else {
+            logger.warn("Truncating torn journal tail of {} at byte {}", active.path(), end);
+            active.truncate(end);
+        }
+        sequence = lastId[0];
+        firstId = JournalSegment.baseId(segments.get(0));
+        durable = sequence;
+    }
+
+    /**
+     * appends the transfer under the next id, the id of the transfer itself is ignored
+     * @return the id of the transfer
+     */
+    public synchronized long append(TransferTransaction transfer) throws IOException {
+        long transferId = sequence + 1;
+        ByteBuffer payload = this.payload;
+        payload.clear();
+        JournalCodec.encode(payload, transferId, transfer);
+        payload.flip();
+        crc.reset();
+        crc.update(payload);
+        payload.rewind();
+        if (active.remaining() < JournalSegment.RECORD_HEADER_SIZE + payload.remaining()) {
+            roll(transferId);
+        }
+        active.append(payload, (int) crc.getValue());
+        sequence = transferId;
+        if (fsyncPolicy == FsyncPolicy.EVERY_WRITE) {
+            active.force();
+        }
+        return transferId;
+    }
+
+    /**
+     * with {@link FsyncPolicy#GROUP}, waits until the record and every record before it are forced to disk.
+     * The first waiter forces the segment for all records appended so far, the others wait for it.
+     * Returns right away with any other policy.
+     */
+    public void awaitDurable(long transferId) {
+        if (fsyncPolicy != FsyncPolicy.GROUP) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            while (durable < transferId) {
+                if (syncing) {
+                    synced.awaitUninterruptibly();
+                    continue;
+                }
+                syncing = true;
+                syncLock.unlock();
+                long forced = -1;
+                try {
+                    JournalSegment segment;
+                    long appended;
+                    synchronized (this) {
+                        segment = active;
+                        appended = sequence;
+                    }
+                    segment.force();
+                    forced = appended;
+                } finally {
+                    syncLock.lock();
+                    syncing = false;
+                    if (forced >= 0) {
+                        durable = Math.max(durable, forced);
+                    }
+                    synced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * reads every record since the last {@link #reset}, oldest first
+     */
+    public synchronized void replay(Consumer<TransferJournalRecord> consumer) throws IOException {
+        for (Path path : JournalSegment.list(directory)) {
+            if (path.equals(active.path())) {
+                active.read(consumer);
+                continue;
+            }
+            JournalSegment segment = JournalSegment.open(path);
+            int end = segment.read(consumer);
+            if (!segment.endsAt(end)) {
+                throw new IOException("Corrupt journal record in " + path + " at byte " + end);
+            }
+        }
+    }
+
+    /**
+     * @return the id of the last appended transfer, ids keep increasing across {@link #reset}s and restarts
+     */
+    public synchronized long lastTransferId() {
+        return sequence;
+    }
+
+    public synchronized boolean isEmpty() {
+        return sequence < firstId;
+    }
+
+    /**
+     * Drops every record once their effects are persisted elsewhere, keeping the id sequence.
+     * A checkpoint segment is written before the older segments are deleted, so a crash in between does not replay them.
+     */
+    public synchronized void reset() throws IOException {
+        reset(sequence);
+    }
+
+    /**
+     * moves the id sequence of an empty journal past the given id, so transfers journaled from now on get greater ids
+     */
+    public synchronized void skipTo(long transferId) throws IOException {
+        if (!isEmpty()) {
+            throw new IllegalStateException("Journal ids can only be skipped while the journal is empty");
+        }
+        if (transferId > sequence) {
+            reset(transferId);
+        }
+    }
+
+    private void reset(long lastId) throws IOException {
+        List<Path> segments = JournalSegment.list(directory);
+        if (active.isEmpty() && active.baseId() == lastId + 1) {
+            active.markCheckpoint();
+        } else {
+            active.force();
+            active = JournalSegment.create(directory, lastId + 1, true, segmentSize);
+            syncDirectory();
+        }
+        for (Path segment : segments) {
+            if (!segment.equals(active.path())) {
+                Files.delete(segment);
+            }
+        }
+        syncDirectory();
+        sequence = lastId;
+        firstId = lastId + 1;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        active.force();
+    }
+
+    private void roll(long baseId) throws IOException {
+        active.force();
+        active = JournalSegment.create(directory, baseId, false, segmentSize);
+        syncDirectory();
+    }
+
+    private void forceActive() {
+        JournalSegment segment;
+        synchronized (this) {
+            segment = active;
+        }
+        try {
+            segment.force();
+        } catch (RuntimeException e) {
+            logger.warn("Forcing journal segment {} failed", segment.path(), e);
+        }
+    }
+
+    /**
+     * makes created and deleted segment files durable, not every platform can force a directory
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.debug("Forcing journal directory {} is not supported", directory, e);
+        }
+    }
+}
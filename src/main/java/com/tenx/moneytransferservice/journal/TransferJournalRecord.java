@@ -0,0 +1,18 @@
+package com.tenx.moneytransferservice.journal;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A transfer as read back from the {@link TransferJournal}, createdAt is kept to the millisecond.
+ */
+@Value
+public class TransferJournalRecord {
+    long transferId;
+    long sourceAccountId;
+    long targetAccountId;
+    long amount;
+    LocalDateTime createdAt;
+    String idempotencyKey;
+}
@@ -0,0 +1,83 @@
+package com.tenx.moneytransferservice.ledger;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Money;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Owns the in-memory balances of a subset of accounts.
+ * Balances are only touched from the shard's single writer thread, so no locking is needed on them.
+ */
+class LedgerShard {
+
+    private final ExecutorService writer;
+    /** single element arrays, so changing a balance does not box a new value */
+    private final Map<Long, long[]> balances = new HashMap<>();
+    private final Function<Long, Long> balanceLoader;
+
+    LedgerShard(int index, Function<Long, Long> balanceLoader) {
+        this.balanceLoader = balanceLoader;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-shard-" + index);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the task on the writer thread and waits for its result, rethrowing its runtime exception as is.
+     */
+    <T> T execute(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, writer).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    void debit(Long accountId, long amount) {
+        long[] balance = balance(accountId);
+        if (balance[0] < amount) {
+            throw new InsufficientBalanceException(accountId);
+        }
+        balance[0] -= amount;
+    }
+
+    void credit(Long accountId, long amount) {
+        long[] balance = balance(accountId);
+        balance[0] = Money.add(balance[0], amount);
+    }
+
+    /**
+     * Applies a journaled debit during recovery, where the balance check already passed before the crash.
+     */
+    void forceDebit(Long accountId, long amount) {
+        long[] balance = balance(accountId);
+        balance[0] = Money.subtract(balance[0], amount);
+    }
+
+    Map<Long, Long> copyBalances() {
+        Map<Long, Long> copy = new HashMap<>();
+        balances.forEach((accountId, balance) -> copy.put(accountId, balance[0]));
+        return copy;
+    }
+
+    void shutdown() {
+        writer.shutdown();
+    }
+
+    private long[] balance(Long accountId) {
+        return balances.computeIfAbsent(accountId, id -> new long[]{balanceLoader.apply(id)});
+    }
+}
@@ -0,0 +1,314 @@
+package com.tenx.moneytransferservice.ledger;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.journal.FsyncPolicy;
+import com.tenx.moneytransferservice.journal.TransferJournal;
+import com.tenx.moneytransferservice.journal.TransferJournalRecord;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountPartitions;
+import com.tenx.moneytransferservice.model.LedgerCheckpoint;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.LedgerCheckpointRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.TransferTransactionService;
+import com.tenx.moneytransferservice.service.TransferValidator;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Transfer service keeping balances in memory, sharded by account id across single writer threads.
+ * Every transfer is appended to a {@link TransferJournal} and durable before it is acknowledged, and balances are
+ * periodically snapshotted into {@link AccountRepository}, after which the journal is reset.
+ * The snapshot inserts the journaled transfers as {@link TransferTransaction} rows under their journal ids, with their
+ * outbox events, and stores the last journaled transfer it covers as a {@link LedgerCheckpoint}, all in one transaction,
+ * so history, statements and idempotency lookups see every transfer once it is snapshotted, and a crash between
+ * the snapshot commit and the journal reset neither replays nor inserts those transfers a second time.
+ */
+@Service
+@Profile("ledger")
+public class LedgerTransferTransactionService implements TransferTransactionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerTransferTransactionService.class);
+    private static final int PERSIST_BATCH_SIZE = 1000;
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    LedgerCheckpointRepository ledgerCheckpointRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    AccountService accountService;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${ledger.shards:4}")
+    int shardCount;
+    @Value("${ledger.journal.directory:data/transfer-ledger}")
+    String journalDirectory;
+    @Value("${ledger.journal.segment-size:64MB}")
+    DataSize segmentSize;
+    @Value("${ledger.journal.fsync:group}")
+    FsyncPolicy fsyncPolicy;
+    @Value("${ledger.journal.fsync-interval:10ms}")
+    Duration fsyncInterval;
+
+    private LedgerShard[] shards;
+    private TransferJournal journal;
+    /** last journaled transfer inserted as a row, records up to it are left behind by a crash before the journal reset */
+    private long persistedTransferId;
+    /** Transfers hold the read lock for their whole duration, snapshots take the write lock to see a quiescent ledger. */
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void start() throws IOException {
+        shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, this::loadBalance);
+        }
+        journal = TransferJournal.open(Paths.get(journalDirectory), Math.toIntExact(segmentSize.toBytes()), fsyncPolicy, fsyncInterval);
+        persistedTransferId = ledgerCheckpointRepository.findById(LedgerCheckpoint.LEDGER_ID)
+                                                        .map(LedgerCheckpoint::getLastTransferId)
+                                                        .orElse(0L);
+        if (!journal.isEmpty()) {
+            long checkpoint = persistedTransferId;
+            if (checkpoint > journal.lastTransferId()) {
+                // ids restarted, the journal was replaced after the checkpoint was written and none of it is snapshotted
+                logger.warn("Ledger checkpoint {} is ahead of the journal at {}, replaying the whole journal", checkpoint, journal.lastTransferId());
+                checkpoint = 0L;
+                persistedTransferId = 0L;
+            }
+            long snapshotted = checkpoint;
+            AtomicInteger replayed = new AtomicInteger();
+            journal.replay(record -> {
+                if (record.getTransferId() <= snapshotted) {
+                    return;
+                }
+                LedgerShard sourceShard = shardFor(record.getSourceAccountId());
+                LedgerShard targetShard = shardFor(record.getTargetAccountId());
+                sourceShard.execute(() -> {
+                    sourceShard.forceDebit(record.getSourceAccountId(), record.getAmount());
+                    return null;
+                });
+                targetShard.execute(() -> {
+                    targetShard.credit(record.getTargetAccountId(), record.getAmount());
+                    return null;
+                });
+                replayed.incrementAndGet();
+            });
+            logger.info("Replayed {} journaled transfers", replayed.get());
+            snapshot();
+        }
+        long lastStoredTransferId = transferTransactionRepository.findMaxId();
+        if (lastStoredTransferId > journal.lastTransferId()) {
+            // transfer rows written by another mode, journal ids become their row ids and must not collide with them
+            logger.info("Skipping journal ids up to {}, the last stored transfer", lastStoredTransferId);
+            journal.skipTo(lastStoredTransferId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        snapshot();
+        for (LedgerShard shard : shards) {
+            shard.shutdown();
+        }
+        journal.close();
+    }
+
+    @Override
+    public TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, long amount) {
+        return transferMetrics.timeTransfer("transferMoney", () -> apply(sourceAccount, targetAccount, amount, null));
+    }
+
+    @Override
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount) {
+        return transfer(sourceAccountId, targetAccountId, amount, null);
+    }
+
+    /**
+     * Funds are checked by the source shard, so only the account level rules are validated up front.
+     * Idempotency keys are journaled and only stored with the transfer rows of the next snapshot, until then replays
+     * in ledger mode are only caught by the idempotency cache.
+     */
+    @Override
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        return transferMetrics.timeTransfer("transfer", () -> {
+            Account sourceAccount = accountService.findAccount(sourceAccountId);
+            Account targetAccount = accountService.findAccount(targetAccountId);
+            transferValidator.validateAccounts(sourceAccount, targetAccount);
+            return apply(sourceAccount, targetAccount, amount, idempotencyKey);
+        });
+    }
+
+    private TransferTransaction apply(Account sourceAccount, Account targetAccount, long amount, String idempotencyKey) {
+        Long sourceAccountId = sourceAccount.getId();
+        Long targetAccountId = targetAccount.getId();
+        LedgerShard sourceShard = shardFor(sourceAccountId);
+        LedgerShard targetShard = shardFor(targetAccountId);
+
+        TransferTransaction transferTransaction = TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                                               .targetAccount(targetAccount)
+                                                                               .amount(amount)
+                                                                               .createdAt(LocalDateTime.now())
+                                                                               .idempotencyKey(idempotencyKey)
+                                                                               .build();
+        snapshotLock.readLock().lock();
+        try {
+            Long transferId = sourceShard.execute(() -> {
+                sourceShard.debit(sourceAccountId, amount);
+                try {
+                    return journal.append(transferTransaction);
+                } catch (IOException e) {
+                    sourceShard.credit(sourceAccountId, amount);
+                    throw new UncheckedIOException(e);
+                } catch (RuntimeException e) {
+                    sourceShard.credit(sourceAccountId, amount);
+                    throw e;
+                }
+            });
+            targetShard.execute(() -> {
+                targetShard.credit(targetAccountId, amount);
+                return null;
+            });
+            // waits outside the shards, so transfers of every shard share one fsync
+            journal.awaitDurable(transferId);
+            transferTransaction.setId(transferId);
+            return transferTransaction;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the journaled transfers, every balance held in memory and the checkpoint in one transaction and resets the journal.
+     */
+    @Scheduled(fixedDelayString = "${ledger.snapshot.interval-ms:5000}")
+    public void snapshot() throws IOException {
+        snapshotLock.writeLock().lock();
+        try {
+            if (journal.isEmpty()) {
+                return;
+            }
+            Map<Long, Long> balances = new HashMap<>();
+            for (LedgerShard shard : shards) {
+                balances.putAll(shard.execute(shard::copyBalances));
+            }
+            long lastTransferId = journal.lastTransferId();
+            transactionTemplate.executeWithoutResult(status -> {
+                persistTransfers();
+                List<Account> accounts = accountRepository.findAllById(balances.keySet());
+                accounts.forEach(account -> account.setBalance(balances.get(account.getId())));
+                accountRepository.saveAll(accounts);
+                ledgerCheckpointRepository.save(LedgerCheckpoint.builder().id(LedgerCheckpoint.LEDGER_ID)
+                                                                          .lastTransferId(lastTransferId)
+                                                                          .build());
+            });
+            persistedTransferId = lastTransferId;
+            journal.reset();
+            logger.debug("Ledger snapshot written for {} accounts", balances.size());
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts the journal records not inserted yet, flushing and clearing the session every JDBC batch so a long journal
+     * is not held in memory. An idempotency key already stored is dropped from the later transfer instead of failing the snapshot.
+     */
+    private void persistTransfers() {
+        Session session = entityManager.unwrap(Session.class);
+        Set<String> idempotencyKeys = new HashSet<>();
+        List<TransferTransaction> batch = new ArrayList<>(PERSIST_BATCH_SIZE);
+        try {
+            journal.replay(record -> {
+                if (record.getTransferId() <= persistedTransferId) {
+                    return;
+                }
+                String idempotencyKey = idempotencyKey(record, idempotencyKeys);
+                TransferTransaction transferTransaction = TransferTransaction.builder().id(record.getTransferId())
+                                                                                       .sourceAccount(entityManager.getReference(Account.class, record.getSourceAccountId()))
+                                                                                       .targetAccount(entityManager.getReference(Account.class, record.getTargetAccountId()))
+                                                                                       .amount(record.getAmount())
+                                                                                       .createdAt(record.getCreatedAt())
+                                                                                       .idempotencyKey(idempotencyKey)
+                                                                                       .build();
+                session.save(transferTransaction);
+                batch.add(transferTransaction);
+                if (batch.size() == PERSIST_BATCH_SIZE) {
+                    flush(batch);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        flush(batch);
+    }
+
+    private String idempotencyKey(TransferJournalRecord record, Set<String> idempotencyKeys) {
+        String idempotencyKey = record.getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return null;
+        }
+        if (!idempotencyKeys.add(idempotencyKey) || transferTransactionRepository.findIdByIdempotencyKey(idempotencyKey).isPresent()) {
+            logger.warn("Dropping repeated idempotency key {} of ledger transfer {}", idempotencyKey, record.getTransferId());
+            return null;
+        }
+        return idempotencyKey;
+    }
+
+    private void flush(List<TransferTransaction> batch) {
+        transferOutbox.appendAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+        batch.clear();
+    }
+
+    private Long loadBalance(Long accountId) {
+        return accountRepository.findById(accountId)
+                                .map(Account::getBalance)
+                                .orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    private LedgerShard shardFor(Long accountId) {
+        return shards[AccountPartitions.of(accountId, shards.length)];
+    }
+}
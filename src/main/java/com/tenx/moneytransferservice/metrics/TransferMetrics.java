@@ -0,0 +1,172 @@
+package com.tenx.moneytransferservice.metrics;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Latency, rejection and contention meters of the transfer path, exposed through the actuator prometheus endpoint.
+ * <ul>
+ *     <li>{@code transfer.duration} and {@code account.duration} timers with percentile histograms, tagged by operation and outcome</li>
+ *     <li>{@code transfer.rejections} counter tagged by reason</li>
+ *     <li>{@code transfer.inflight} gauge of transfers between entering concurrency control and finishing,
+ *     and {@code transfer.contention} gauge of those sharing an account with an earlier in-flight transfer</li>
+ * </ul>
+ */
+@Component
+public class TransferMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> inFlightByAccount = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger contended = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("transfer.inflight", inFlight, AtomicInteger::get)
+             .description("Transfers currently in flight")
+             .register(meterRegistry);
+        Gauge.builder("transfer.contention", contended, AtomicInteger::get)
+             .description("In-flight transfers waiting on an account another in-flight transfer already holds")
+             .register(meterRegistry);
+    }
+
+    public <T> T timeAccount(String operation, Supplier<T> action) {
+        return time("account.duration", operation, action);
+    }
+
+    public void timeAccount(String operation, Runnable action) {
+        time("account.duration", operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * times a transactional transfer up to the completion of its transaction, so the commit is part of the measurement.
+     * Outside a transaction the action alone is timed.
+     */
+    public <T> T timeTransfer(String operation, Supplier<T> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return time("transfer.duration", operation, action);
+        }
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            record("transfer.duration", operation, ERROR, start);
+            throw e;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                record("transfer.duration", operation, status == STATUS_COMMITTED ? SUCCESS : ERROR, start);
+            }
+        });
+        return result;
+    }
+
+    public void rejected(RuntimeException e) {
+        rejections.computeIfAbsent(reason(e), reason -> Counter.builder("transfer.rejections")
+                                                               .description("Rejected transfers, by reason")
+                                                               .tag("reason", reason)
+                                                               .register(meterRegistry))
+                  .increment();
+    }
+
+    /**
+     * counts the transfer as in flight on both accounts while the action runs
+     */
+    public <T> T trackInFlight(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        inFlight.incrementAndGet();
+        enter(sourceAccountId);
+        if (targetAccountId != null && !targetAccountId.equals(sourceAccountId)) {
+            enter(targetAccountId);
+        }
+        try {
+            return action.get();
+        } finally {
+            if (targetAccountId != null && !targetAccountId.equals(sourceAccountId)) {
+                leave(targetAccountId);
+            }
+            leave(sourceAccountId);
+            inFlight.decrementAndGet();
+        }
+    }
+
+    private <T> T time(String name, String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        String outcome = ERROR;
+        try {
+            T result = action.get();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            record(name, operation, outcome, start);
+        }
+    }
+
+    private void record(String name, String operation, String outcome, long start) {
+        timers.computeIfAbsent(name + '|' + operation + '|' + outcome, key -> Timer.builder(name)
+                                                                                  .tag("operation", operation)
+                                                                                  .tag("outcome", outcome)
+                                                                                  .publishPercentileHistogram()
+                                                                                  .register(meterRegistry))
+              .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private void enter(Long accountId) {
+        if (accountId != null && inFlightByAccount.merge(accountId, 1, Integer::sum) > 1) {
+            contended.incrementAndGet();
+        }
+    }
+
+    private void leave(Long accountId) {
+        if (accountId != null && inFlightByAccount.compute(accountId, (id, count) -> count == 1 ? null : count - 1) != null) {
+            contended.decrementAndGet();
+        }
+    }
+
+    private static String reason(RuntimeException e) {
+        if (e instanceof InsufficientBalanceException) {
+            return "insufficient_balance";
+        } else if (e instanceof CurrencyMismatchException) {
+            return "currency_mismatch";
+        } else if (e instanceof TransferBetweenSameAccountException) {
+            return "same_account";
+        } else if (e instanceof AccountNotFoundException) {
+            return "not_found";
+        } else if (e instanceof ObjectOptimisticLockingFailureException) {
+            return "optimistic_conflict";
+        } else if (e instanceof RejectedExecutionException) {
+            return "executor_saturated";
+        }
+        return "other";
+    }
+}
@@ -8,23 +8,32 @@ import java.util.Set;
 import org.springframework.data.domain.Auditable;
 import org.springframework.data.jpa.repository.Lock;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import java.io.Serializable;
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
-@Builder
+@Builder(toBuilder = true)
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
 public class Account implements Serializable {
+    /** the sequence starts above the accounts seeded by data.sql */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", strategy = "com.tenx.moneytransferservice.model.TransferIdGenerator",
+                      parameters = {@Parameter(name = "sequence_name", value = "account_seq"),
+                                     @Parameter(name = "initial_value", value = "1000")})
     private Long id;
 
+    /**
+     * in {@link Money} minor units
+     */
     @Column(nullable = false)
-    private BigDecimal balance;
+    private long balance;
 
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
@@ -33,6 +42,11 @@ public class Account implements Serializable {
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
+    /**
+     * number of {@link AccountBalanceShard}s holding the balance, null when the account is not sharded
+     */
+    private Integer balanceShards;
+
     @Version
     public Long version;
 }
@@ -0,0 +1,40 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Part of the balance of a sharded account, the balance of the account is its own balance plus the sum of its shards.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "shard_index"}))
+public class AccountBalanceShard {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_shard_seq")
+    @SequenceGenerator(name = "account_balance_shard_seq", sequenceName = "account_balance_shard_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id")
+    private Account account;
+
+    @Column(name = "shard_index", nullable = false)
+    private int shardIndex;
+
+    /**
+     * in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long balance;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,33 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Balance of an account in event sourced mode after all its {@link AccountEvent}s up to lastEventId,
+ * so replay only reads the events after it.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+public class AccountBalanceSnapshot {
+    @Id
+    private Long accountId;
+
+    /**
+     * in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long balance;
+
+    @Column(nullable = false)
+    private long lastEventId;
+}
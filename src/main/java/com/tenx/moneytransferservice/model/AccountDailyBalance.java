@@ -0,0 +1,58 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Totals of the transfers of an account on a day it had any, rolled up from {@link TransferTransaction} once the day is over.
+ * The account is kept as a plain id, the rows are derived data and must not stop an account from being deleted.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"account_id", "balance_day"}),
+       indexes = @Index(name = "idx_daily_balance_day", columnList = "balance_day"))
+public class AccountDailyBalance {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_daily_balance_seq")
+    @SequenceGenerator(name = "account_daily_balance_seq", sequenceName = "account_daily_balance_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance_day", nullable = false)
+    private LocalDate day;
+
+    /**
+     * balance at the start of the day, in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long openingBalance;
+
+    /**
+     * sum of the transfers out of the account, in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long debits;
+
+    /**
+     * sum of the transfers into the account, in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long credits;
+
+    @Column(nullable = false)
+    private long transferCount;
+
+    public long getClosingBalance() {
+        return Money.subtract(Money.add(openingBalance, credits), debits);
+    }
+}
@@ -0,0 +1,41 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A debit or credit of an account in event sourced mode, appended with its transfer and never updated.
+ * Events of an account are appended while the account is locked, so their ids grow in the order they were applied.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(indexes = @Index(name = "idx_account_event_account", columnList = "account_id, id"))
+public class AccountEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_seq")
+    @SequenceGenerator(name = "account_event_seq", sequenceName = "account_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(nullable = false)
+    private Long transferId;
+
+    /**
+     * in {@link Money} minor units, negative for a debit
+     */
+    @Column(nullable = false)
+    private long amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
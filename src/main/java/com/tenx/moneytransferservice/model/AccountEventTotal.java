@@ -0,0 +1,19 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Sum of the events of one account after a snapshot and the id of the last of them, read with a grouped query
+ */
+@Data
+@AllArgsConstructor
+public class AccountEventTotal {
+
+    private Long accountId;
+    /**
+     * in {@link Money} minor units
+     */
+    private long amount;
+    private long lastEventId;
+}
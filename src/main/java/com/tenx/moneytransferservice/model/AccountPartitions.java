@@ -0,0 +1,33 @@
+package com.tenx.moneytransferservice.model;
+
+/**
+ * Maps account ids onto lock stripes and shards. Ids are mixed before taking the modulo: snowflake ids drawn at
+ * account creation rates mostly have a zero counter and the same node, so their low bits are all equal and a plain
+ * modulo would put every account in the same partition.
+ * The replay queries cannot run the mix, they fold the id instead, summing its modulo with those of the id shifted
+ * past the counter and past the node bits, see {@link com.tenx.moneytransferservice.repository.AccountRepository#findByShard}.
+ */
+public final class AccountPartitions {
+
+    private AccountPartitions() {
+    }
+
+    /**
+     * @return the partition of the account, between 0 and partitions - 1
+     */
+    public static int of(long accountId, int partitions) {
+        return (int) Math.floorMod(mix(accountId), (long) partitions);
+    }
+
+    /**
+     * 64 bit finalizer of MurmurHash3, every bit of the id affects every bit of the result
+     */
+    static long mix(long id) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb9fe1a85ec53L;
+        id ^= id >>> 33;
+        return id;
+    }
+}
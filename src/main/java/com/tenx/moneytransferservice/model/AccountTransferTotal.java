@@ -0,0 +1,19 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Sum and count of the transfers of one account in one direction, read with a grouped query
+ */
+@Data
+@AllArgsConstructor
+public class AccountTransferTotal {
+
+    private Long accountId;
+    /**
+     * in {@link Money} minor units
+     */
+    private long amount;
+    private long count;
+}
@@ -1,5 +1,21 @@
 package com.tenx.moneytransferservice.model;
 
 public enum Currency {
-    GBP, USD, EUR, INR, TRY
+    GBP(2), USD(2), EUR(2), INR(2), TRY(2);
+
+    /**
+     * number of decimal places of the minor unit, e.g. pence for GBP
+     */
+    private final int scale;
+
+    Currency(int scale) {
+        if (scale > Money.SCALE) {
+            throw new IllegalArgumentException("Currency scale " + scale + " is finer than the stored scale " + Money.SCALE);
+        }
+        this.scale = scale;
+    }
+
+    public int getScale() {
+        return scale;
+    }
 }
@@ -0,0 +1,18 @@
+package com.tenx.moneytransferservice.model;
+
+/**
+ * How {@link TransferIdGenerator} allocates ids, set with {@code id.generator.strategy}.
+ */
+public enum IdStrategy {
+    /** blocks of {@code id.generator.increment} ids per sequence call, handed out in memory */
+    POOLED_LO,
+    /** time ordered ids built in the JVM from the clock, {@code id.generator.node} and a counter, see {@link SnowflakeIdGenerator} */
+    SNOWFLAKE;
+
+    /**
+     * @param value the property value, e.g. pooled-lo
+     */
+    public static IdStrategy of(String value) {
+        return valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+}
@@ -0,0 +1,33 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Id of the last journaled transfer whose effects are in the account table, written in the same transaction as
+ * the ledger snapshot. Replay skips journal records up to it.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+public class LedgerCheckpoint {
+
+    /**
+     * the ledger keeps a single checkpoint row
+     */
+    public static final Long LEDGER_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long lastTransferId;
+}
@@ -0,0 +1,104 @@
+package com.tenx.moneytransferservice.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Money amounts are carried as long counts of minor units at {@link #SCALE} decimal places, so adding and
+ * comparing them allocates nothing. Arithmetic fails with an {@link ArithmeticException} instead of overflowing.
+ */
+public final class Money {
+
+    /**
+     * decimal places of the stored minor unit, every amount and balance is a count of these. It is part of the stored data
+     * and must not change with the supported currencies, {@link Currency} refuses a scale finer than this one
+     */
+    public static final int SCALE = 2;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+    private static final long UNIT = POWERS_OF_TEN[SCALE];
+
+    private Money() {
+    }
+
+    public static long add(long amount, long augend) {
+        return Math.addExact(amount, augend);
+    }
+
+    public static long subtract(long amount, long subtrahend) {
+        return Math.subtractExact(amount, subtrahend);
+    }
+
+    /**
+     * parses a plain decimal such as "100", "-3" or "100.25" into minor units without allocating
+     * @throws NumberFormatException when the text is not a plain decimal, has more decimals than {@link #SCALE} or overflows a long
+     */
+    public static long parse(CharSequence text) {
+        int length = text.length();
+        int index = 0;
+        boolean negative = false;
+        if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+            negative = text.charAt(0) == '-';
+            index++;
+        }
+        long units = 0;
+        int decimals = -1;
+        boolean digits = false;
+        try {
+            for (; index < length; index++) {
+                char c = text.charAt(index);
+                if (c == '.' && decimals < 0) {
+                    decimals = 0;
+                } else if (c >= '0' && c <= '9') {
+                    if (decimals >= 0 && ++decimals > SCALE) {
+                        throw new NumberFormatException("Amount has more than " + SCALE + " decimals : " + text);
+                    }
+                    // accumulate negatively so Long.MIN_VALUE is representable
+                    units = Math.subtractExact(Math.multiplyExact(units, 10L), c - '0');
+                    digits = true;
+                } else {
+                    throw new NumberFormatException("Invalid amount : " + text);
+                }
+            }
+            if (!digits) {
+                throw new NumberFormatException("Invalid amount : " + text);
+            }
+            units = Math.multiplyExact(units, POWERS_OF_TEN[SCALE - Math.max(decimals, 0)]);
+            return negative ? units : Math.negateExact(units);
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range : " + text);
+        }
+    }
+
+    /**
+     * @return the amount as a plain decimal with {@link #SCALE} decimals, e.g. "100.25"
+     */
+    public static String format(long amount) {
+        StringBuilder text = new StringBuilder(24);
+        long whole = amount / UNIT;
+        long fraction = Math.abs(amount % UNIT);
+        if (amount < 0 && whole == 0) {
+            text.append('-');
+        }
+        text.append(whole);
+        if (SCALE > 0) {
+            text.append('.');
+            String digits = Long.toString(fraction);
+            for (int i = digits.length(); i < SCALE; i++) {
+                text.append('0');
+            }
+            text.append(digits);
+        }
+        return text.toString();
+    }
+
+    /**
+     * for callers that still deal in decimals, fails when the amount is finer than the minor unit
+     */
+    public static long of(BigDecimal amount) {
+        return amount.movePointRight(SCALE).longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long amount) {
+        return BigDecimal.valueOf(amount, SCALE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * A credit to a netted account, written in the transaction of the transfer instead of updating the account row,
+ * and deleted once it is applied to the account.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "pending_credit", indexes = @Index(name = "pending_credit_account_idx", columnList = "accountId"))
+public class PendingCredit {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pending_credit_seq")
+    @SequenceGenerator(name = "pending_credit_seq", sequenceName = "pending_credit_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long accountId;
+
+    /**
+     * in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long amount;
+}
@@ -0,0 +1,63 @@
+package com.tenx.moneytransferservice.model;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Snowflake style ids: 41 bits of milliseconds since {@link #EPOCH}, 10 bits of node and a 12 bit counter,
+ * so ids of one node grow with time and ids of different nodes never collide.
+ * Ids are drawn with a compare and set on a single long, without locking. When the counter of a millisecond runs out,
+ * or the clock goes back, ids continue from the last one as if the clock had moved on, so they never repeat.
+ * Every node id must be used by one running instance only.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2021-01-01T00:00:00Z");
+    public static final int NODE_BITS = 10;
+    public static final int COUNTER_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final ConcurrentMap<Integer, SnowflakeIdGenerator> NODES = new ConcurrentHashMap<>();
+
+    private final int node;
+    private final LongSupplier clock;
+    /** milliseconds since the epoch shifted left by the counter bits, plus the counter, of the last id */
+    private final AtomicLong last = new AtomicLong();
+
+    SnowflakeIdGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("Snowflake node must be between 0 and " + MAX_NODE + " : " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    /**
+     * @return the generator of the node, shared by everything in the JVM drawing ids for it
+     */
+    public static SnowflakeIdGenerator forNode(int node) {
+        return NODES.computeIfAbsent(node, n -> new SnowflakeIdGenerator(n, System::currentTimeMillis));
+    }
+
+    public long nextId() {
+        long next;
+        long previous;
+        do {
+            previous = last.get();
+            long millis = clock.getAsLong() - EPOCH.toEpochMilli();
+            next = Math.max(millis << COUNTER_BITS, previous + 1);
+        } while (!last.compareAndSet(previous, next));
+        return ((next >>> COUNTER_BITS) << (NODE_BITS + COUNTER_BITS)) | ((long) node << COUNTER_BITS) | (next & COUNTER_MASK);
+    }
+
+    /**
+     * @return when the id was drawn, to the millisecond
+     */
+    public static Instant timestamp(long id) {
+        return EPOCH.plusMillis(id >>> (NODE_BITS + COUNTER_BITS));
+    }
+}
@@ -0,0 +1,58 @@
+package com.tenx.moneytransferservice.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Id generator of accounts and transfers, switched with {@code id.generator.strategy}.
+ * pooled-lo draws {@code id.generator.increment} ids per sequence call, snowflake draws them from
+ * the {@link SnowflakeIdGenerator} of {@code id.generator.node} without touching the database.
+ * The sequence exists with either strategy, so the reactive stack keeps drawing its ids from it. Sequence values stay
+ * far below snowflake ids, so rows written by either stack never collide.
+ * Changing the increment of an existing database fails on start, as Hibernate checks it against the sequence.
+ * Transfers saved with an id already assigned, as ledger transfers carry their journal id, keep it.
+ */
+public class TransferIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "id.generator.strategy";
+    public static final String INCREMENT = "id.generator.increment";
+    public static final String NODE = "id.generator.node";
+
+    private SnowflakeIdGenerator snowflake;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        IdStrategy strategy = IdStrategy.of(setting(settings, STRATEGY, "pooled-lo"));
+        if (strategy == IdStrategy.SNOWFLAKE) {
+            snowflake = SnowflakeIdGenerator.forNode(Integer.parseInt(setting(settings, NODE, "0")));
+        }
+        params.setProperty(INCREMENT_PARAM, setting(settings, INCREMENT, "50"));
+        params.setProperty(OPT_PARAM, "pooled-lo");
+        super.configure(type, params, serviceRegistry);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        if (object instanceof TransferTransaction && ((TransferTransaction) object).getId() != null) {
+            return ((TransferTransaction) object).getId();
+        }
+        if (snowflake != null) {
+            return snowflake.nextId();
+        }
+        return super.generate(session, object);
+    }
+
+    private static String setting(Map<?, ?> settings, String name, String defaultValue) {
+        Object value = settings.get(name);
+        return value == null ? defaultValue : value.toString();
+    }
+}
@@ -0,0 +1,49 @@
+package com.tenx.moneytransferservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A completed transfer waiting to be published, written in the transaction of the transfer and deleted once published.
+ * The id is taken after the accounts of the transfer are updated, so for every account events are in the order its transfers committed.
+ * Every id is drawn from the database sequence when the event is saved rather than from a block reserved by the instance,
+ * so the order also holds between instances, at the cost of a sequence call per event.
+ */
+@Builder
+@Data
+@Entity
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "transfer_outbox")
+public class TransferOutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transfer_outbox_seq")
+    @SequenceGenerator(name = "transfer_outbox_seq", sequenceName = "transfer_outbox_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long transferId;
+
+    @Column(nullable = false)
+    private Long sourceAccountId;
+
+    @Column(nullable = false)
+    private Long targetAccountId;
+
+    /**
+     * in {@link Money} minor units
+     */
+    @Column(nullable = false)
+    private long amount;
+
+    /**
+     * when the transfer was created
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
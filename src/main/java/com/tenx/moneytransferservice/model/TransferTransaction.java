@@ -2,23 +2,42 @@ package com.tenx.moneytransferservice.model;
 
 import lombok.*;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import java.io.Serializable;
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Builder
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor
+@Table(indexes = {
+        @Index(name = "idx_transfer_source_created", columnList = "source_account_id, created_at, id"),
+        @Index(name = "idx_transfer_target_created", columnList = "target_account_id, created_at, id"),
+        @Index(name = "idx_transfer_created", columnList = "created_at")
+})
 public class TransferTransaction implements Serializable {
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "transfer_transaction_seq")
+    @GenericGenerator(name = "transfer_transaction_seq", strategy = "com.tenx.moneytransferservice.model.TransferIdGenerator",
+                      parameters = @Parameter(name = "sequence_name", value = "transfer_transaction_seq"))
     private Long id;
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "source_account_id")
     private Account sourceAccount;
     @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "target_account_id")
     private Account targetAccount;
-    private BigDecimal amount;
+    /**
+     * in {@link Money} minor units
+     */
+    private long amount;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(unique = true)
+    private String idempotencyKey;
 
 }
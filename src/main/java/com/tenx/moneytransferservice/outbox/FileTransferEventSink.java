@@ -0,0 +1,79 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenx.moneytransferservice.controller.TransferHistoryDTO;
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Appends published events to an ndjson file, one transfer per line in the format of the transfer history.
+ * Every batch is flushed, and forced to disk with {@code transfer.outbox.file.fsync}, before the outbox rows are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.outbox.sink", havingValue = "file")
+public class FileTransferEventSink implements TransferEventSink {
+
+    private static final byte NEW_LINE = '\n';
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Value("${transfer.outbox.file.path:data/transfer-events.ndjson}")
+    String path;
+    @Value("${transfer.outbox.file.fsync:false}")
+    boolean fsync;
+
+    private FileOutputStream file;
+    private OutputStream output;
+
+    @PostConstruct
+    public void open() throws IOException {
+        Path eventsPath = Paths.get(path);
+        if (eventsPath.getParent() != null) {
+            Files.createDirectories(eventsPath.getParent());
+        }
+        file = new FileOutputStream(eventsPath.toFile(), true);
+        output = new BufferedOutputStream(file, 64 * 1024);
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+
+    @Override
+    public synchronized void publish(List<TransferOutboxEvent> events) {
+        try {
+            for (TransferOutboxEvent event : events) {
+                output.write(objectMapper.writeValueAsBytes(TransferHistoryDTO.builder().id(event.getTransferId())
+                                                                                        .sourceAccountId(event.getSourceAccountId())
+                                                                                        .targetAccountId(event.getTargetAccountId())
+                                                                                        .amount(event.getAmount())
+                                                                                        .createdAt(event.getCreatedAt())
+                                                                                        .build()));
+                output.write(NEW_LINE);
+            }
+            output.flush();
+            if (fsync) {
+                file.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the latest published events in memory for local testing, the oldest are dropped beyond {@code transfer.outbox.memory.capacity}.
+ */
+@Component
+@ConditionalOnProperty(name = "transfer.outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTransferEventSink implements TransferEventSink {
+
+    @Value("${transfer.outbox.memory.capacity:10000}")
+    int capacity;
+
+    private final Deque<TransferOutboxEvent> events = new ArrayDeque<>();
+
+    @Override
+    public synchronized void publish(List<TransferOutboxEvent> published) {
+        for (TransferOutboxEvent event : published) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * @return published events, oldest first
+     */
+    public synchronized List<TransferOutboxEvent> events() {
+        return new ArrayList<>(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
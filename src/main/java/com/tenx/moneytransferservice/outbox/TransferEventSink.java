@@ -0,0 +1,16 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the transfer events relayed from the outbox, chosen with {@code transfer.outbox.sink}.
+ */
+public interface TransferEventSink {
+    /**
+     * publishes the events in the given order, which keeps the order of the transfers of every account.
+     * Throwing leaves the whole batch in the outbox to be published again, so events are delivered at least once.
+     */
+    void publish(List<TransferOutboxEvent> events);
+}
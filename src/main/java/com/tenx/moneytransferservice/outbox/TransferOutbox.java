@@ -0,0 +1,55 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.repository.TransferOutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes completed transfers to the outbox table, enabled with {@code transfer.outbox.enabled}.
+ * Has to be called in the transaction of the transfer after its accounts are updated, see {@link TransferOutboxEvent}.
+ */
+@Component
+public class TransferOutbox {
+
+    @Autowired
+    TransferOutboxEventRepository transferOutboxEventRepository;
+
+    @Value("${transfer.outbox.enabled:false}")
+    boolean enabled;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void append(TransferTransaction transferTransaction) {
+        if (enabled) {
+            transferOutboxEventRepository.save(event(transferTransaction));
+        }
+    }
+
+    public void appendAll(List<TransferTransaction> transferTransactions) {
+        if (!enabled || transferTransactions.isEmpty()) {
+            return;
+        }
+        List<TransferOutboxEvent> events = new ArrayList<>(transferTransactions.size());
+        for (TransferTransaction transferTransaction : transferTransactions) {
+            events.add(event(transferTransaction));
+        }
+        transferOutboxEventRepository.saveAll(events);
+    }
+
+    public static TransferOutboxEvent event(TransferTransaction transferTransaction) {
+        return TransferOutboxEvent.builder().transferId(transferTransaction.getId())
+                                            .sourceAccountId(transferTransaction.getSourceAccount().getId())
+                                            .targetAccountId(transferTransaction.getTargetAccount().getId())
+                                            .amount(transferTransaction.getAmount())
+                                            .createdAt(transferTransaction.getCreatedAt())
+                                            .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import com.tenx.moneytransferservice.repository.TransferOutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the outbox to the {@link TransferEventSink} in batches of {@code transfer.outbox.batch-size}, oldest first.
+ * Every batch is read, published and deleted in one transaction, so a failed publish leaves the batch for the next poll.
+ * Polls every {@code transfer.outbox.poll-interval-ms} and keeps going while batches come back full.
+ * <ul>
+ *     <li>{@code transfer.outbox.published} counter and {@code transfer.outbox.batch} summary of published events</li>
+ *     <li>{@code transfer.outbox.relay} timer of publishing a batch, and {@code transfer.outbox.failures} counter</li>
+ *     <li>{@code transfer.outbox.lag} gauge, age of the oldest event not yet published at the last poll</li>
+ * </ul>
+ */
+@Component
+public class TransferOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferOutboxRelay.class);
+
+    @Autowired
+    TransferOutboxEventRepository transferOutboxEventRepository;
+    @Autowired
+    TransferEventSink transferEventSink;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${transfer.outbox.batch-size:500}")
+    int batchSize;
+
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Counter published;
+    private Counter failures;
+    private DistributionSummary batches;
+    private Timer relayTimer;
+
+    @PostConstruct
+    public void init() {
+        published = Counter.builder("transfer.outbox.published").description("Transfer events published from the outbox").register(meterRegistry);
+        failures = Counter.builder("transfer.outbox.failures").description("Outbox batches that failed to publish").register(meterRegistry);
+        batches = DistributionSummary.builder("transfer.outbox.batch").description("Events per published outbox batch").register(meterRegistry);
+        relayTimer = Timer.builder("transfer.outbox.relay").description("Time to publish and delete an outbox batch").register(meterRegistry);
+        TimeGauge.builder("transfer.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                 .description("Age of the oldest unpublished transfer event at the last poll")
+                 .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transfer.outbox.poll-interval-ms:100}")
+    public synchronized void relay() {
+        if (!transferOutbox.isEnabled()) {
+            return;
+        }
+        try {
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed == batchSize);
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.warn("Publishing transfer events failed, retrying on the next poll", e);
+        }
+    }
+
+    private int relayBatch() {
+        List<TransferOutboxEvent> events = transferOutboxEventRepository.findOldestForUpdate(PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            lagMillis.set(0);
+            return 0;
+        }
+        lagMillis.set(Math.max(0, Duration.between(events.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+        relayTimer.record(() -> {
+            transferEventSink.publish(events);
+            List<Long> ids = new ArrayList<>(events.size());
+            for (TransferOutboxEvent event : events) {
+                ids.add(event.getId());
+            }
+            transferOutboxEventRepository.deleteByIds(ids);
+        });
+        published.increment(events.size());
+        batches.record(events.size());
+        return events.size();
+    }
+}
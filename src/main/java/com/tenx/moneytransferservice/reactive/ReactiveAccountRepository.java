@@ -0,0 +1,77 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * R2DBC counterpart of {@link com.tenx.moneytransferservice.repository.AccountRepository} on the table mapped by {@link Account}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveAccountRepository {
+
+    private static final String SELECT_ACCOUNT = "SELECT id, balance, currency, created_at, balance_shards, version FROM account";
+
+    @Autowired
+    DatabaseClient databaseClient;
+    @Autowired
+    ReactiveSequence reactiveSequence;
+
+    public Flux<Account> findAllById(Collection<Long> ids) {
+        return databaseClient.sql(SELECT_ACCOUNT + " WHERE id IN (:ids)")
+                             .bind("ids", ids)
+                             .map((row, metadata) -> toAccount(row))
+                             .all();
+    }
+
+    /**
+     * @return the number of updated rows, 0 when the account is missing or its balance does not cover the amount
+     */
+    public Mono<Integer> debit(Long id, long amount) {
+        return databaseClient.sql("UPDATE account SET balance = balance - :amount, version = version + 1 WHERE id = :id AND balance >= :amount")
+                             .bind("id", id)
+                             .bind("amount", amount)
+                             .fetch()
+                             .rowsUpdated();
+    }
+
+    public Mono<Integer> credit(Long id, long amount) {
+        return databaseClient.sql("UPDATE account SET balance = balance + :amount, version = version + 1 WHERE id = :id")
+                             .bind("id", id)
+                             .bind("amount", amount)
+                             .fetch()
+                             .rowsUpdated();
+    }
+
+    public Mono<Account> save(Account account) {
+        return reactiveSequence.nextId("account_seq")
+                               .flatMap(id -> databaseClient.sql("INSERT INTO account (id, balance, currency, created_at, version) VALUES (:id, :balance, :currency, :createdAt, 0)")
+                                                            .bind("id", id)
+                                                            .bind("balance", account.getBalance())
+                                                            .bind("currency", account.getCurrency().name())
+                                                            .bind("createdAt", account.getCreatedAt())
+                                                            .then()
+                                                            .thenReturn(account.toBuilder().id(id).version(0L).build()));
+    }
+
+    private Account toAccount(Row row) {
+        return Account.builder()
+                      .id(row.get("id", Long.class))
+                      .balance(row.get("balance", Long.class))
+                      .currency(Currency.valueOf(row.get("currency", String.class)))
+                      .createdAt(row.get("created_at", LocalDateTime.class))
+                      .balanceShards(row.get("balance_shards", Integer.class))
+                      .version(row.get("version", Long.class))
+                      .build();
+    }
+}
@@ -0,0 +1,8 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.controller.AccountDTO;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveAccountService {
+    Mono<Long> saveAccount(AccountDTO accountDTO);
+}
@@ -0,0 +1,27 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.controller.AccountDTO;
+import com.tenx.moneytransferservice.model.Account;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+@Service
+@Profile("reactive")
+public class ReactiveAccountServiceImpl implements ReactiveAccountService {
+
+    @Autowired
+    ReactiveAccountRepository reactiveAccountRepository;
+
+    @Override
+    public Mono<Long> saveAccount(AccountDTO accountDTO) {
+        return reactiveAccountRepository.save(Account.builder()
+                                                     .currency(accountDTO.getCurrency())
+                                                     .createdAt(LocalDateTime.now())
+                                                     .build())
+                                        .map(Account::getId);
+    }
+}
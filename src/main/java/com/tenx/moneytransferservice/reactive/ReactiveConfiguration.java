@@ -0,0 +1,57 @@
+package com.tenx.moneytransferservice.reactive;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * R2DBC access for the reactive stack. The connection factory opens the same H2 database as the JDBC datasource,
+ * so the schema created by Hibernate and the data.sql accounts are shared by both stacks.
+ * Neither the connection factory nor the R2DBC transaction manager are beans: Spring Boot backs the JDBC datasource off
+ * when a connection factory bean exists, and {@code @Transactional} on the JPA services could no longer pick
+ * their transaction manager next to a second one.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfiguration {
+
+    private static final String H2_URL_PREFIX = "jdbc:h2:";
+
+    @Autowired
+    DataSourceProperties dataSourceProperties;
+
+    private ConnectionFactory connectionFactory;
+
+    @PostConstruct
+    public void init() {
+        String url = dataSourceProperties.determineUrl();
+        if (url == null || !url.startsWith(H2_URL_PREFIX)) {
+            throw new IllegalStateException("Reactive profile supports H2 datasources only : " + url);
+        }
+        connectionFactory = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                                                                             .url(url.substring(H2_URL_PREFIX.length()))
+                                                                             .username(dataSourceProperties.determineUsername())
+                                                                             .password(dataSourceProperties.determinePassword())
+                                                                             .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClient() {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public TransactionalOperator transactionalOperator() {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,24 @@
+package com.tenx.moneytransferservice.reactive;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+/**
+ * Routes of the reactive stack, served by WebFlux when the reactive profile is active.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveRouter {
+
+    @Bean
+    public RouterFunction<ServerResponse> transferRoutes(TransferHandler transferHandler) {
+        return route(POST("/v1/transfers"), transferHandler::createMoneyTransferTransaction)
+                .andRoute(POST("/v1/accounts"), transferHandler::createAccount);
+    }
+}
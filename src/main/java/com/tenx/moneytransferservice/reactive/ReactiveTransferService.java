@@ -0,0 +1,16 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import reactor.core.publisher.Mono;
+
+
+public interface ReactiveTransferService {
+    /**
+     * loads, validates and transfers in one transaction, with the same conditional updates as the servlet stack
+     */
+    Mono<TransferTransaction> transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey);
+    /**
+     * @return the id of the transfer created with the key, empty when there is none
+     */
+    Mono<Long> findTransferId(String idempotencyKey);
+}
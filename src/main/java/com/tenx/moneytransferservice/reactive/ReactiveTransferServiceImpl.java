@@ -0,0 +1,128 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.cache.IdempotencyCache;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.service.TransferValidator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Non-blocking transfer with the semantics of {@link com.tenx.moneytransferservice.service.TransferTransactionServiceImpl#transfer}:
+ * both accounts are read with one query and validated inside the transaction, the debit only applies while the balance
+ * covers it, and rows are updated in ascending id order.
+ * Only the account row balance is read and updated, so the profile refuses to start with credit netting enabled or
+ * with sharded accounts, and transfers touching an account sharded meanwhile by another instance fail.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTransferServiceImpl implements ReactiveTransferService {
+
+    @Autowired
+    ReactiveAccountRepository reactiveAccountRepository;
+    @Autowired
+    ReactiveTransferTransactionRepository reactiveTransferTransactionRepository;
+    @Autowired
+    TransactionalOperator transactionalOperator;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    IdempotencyCache idempotencyCache;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @Autowired
+    AccountRepository accountRepository;
+
+    @Value("${account.netting.enabled:false}")
+    boolean nettingEnabled;
+
+    @PostConstruct
+    public void checkAccountRowBalances() {
+        if (nettingEnabled) {
+            throw new IllegalStateException("Reactive profile does not apply netted credits, disable account.netting.enabled");
+        }
+        List<Account> shardedAccounts = accountRepository.findByBalanceShardsNotNull();
+        if (!shardedAccounts.isEmpty()) {
+            throw new IllegalStateException("Reactive profile does not debit balance shards, unshard account " + shardedAccounts.get(0).getId() + " first");
+        }
+    }
+
+    @Override
+    public Mono<TransferTransaction> transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        Mono<TransferTransaction> transfer = reactiveAccountRepository.findAllById(Arrays.asList(sourceAccountId, targetAccountId))
+                .collectList()
+                .flatMap(accounts -> {
+                    Account sourceAccount = account(accounts, sourceAccountId);
+                    Account targetAccount = account(accounts, targetAccountId);
+                    transferValidator.validate(sourceAccount, targetAccount, amount);
+                    if (sourceAccount.getBalanceShards() != null || targetAccount.getBalanceShards() != null) {
+                        throw new IllegalStateException("Reactive transfers do not support sharded accounts");
+                    }
+                    Mono<Void> updates = sourceAccountId < targetAccountId
+                            ? debit(sourceAccountId, amount).then(credit(targetAccountId, amount))
+                            : credit(targetAccountId, amount).then(debit(sourceAccountId, amount));
+                    return updates.then(reactiveTransferTransactionRepository.save(TransferTransaction.builder()
+                                                                                                     .sourceAccount(sourceAccount)
+                                                                                                     .targetAccount(targetAccount)
+                                                                                                     .amount(amount)
+                                                                                                     .createdAt(LocalDateTime.now())
+                                                                                                     .idempotencyKey(idempotencyKey)
+                                                                                                     .build()))
+                                  .flatMap(saved -> transferOutbox.isEnabled()
+                                          ? reactiveTransferTransactionRepository.saveOutboxEvent(TransferOutbox.event(saved)).thenReturn(saved)
+                                          : Mono.just(saved));
+                });
+        return transactionalOperator.transactional(transfer)
+                                    .doOnNext(transferTransaction -> {
+                                        if (idempotencyKey != null) {
+                                            idempotencyCache.put(idempotencyKey, transferTransaction.getId());
+                                        }
+                                    });
+    }
+
+    @Override
+    public Mono<Long> findTransferId(String idempotencyKey) {
+        Long transferId = idempotencyCache.get(idempotencyKey);
+        if (transferId != null) {
+            return Mono.just(transferId);
+        }
+        return reactiveTransferTransactionRepository.findIdByIdempotencyKey(idempotencyKey)
+                                                    .doOnNext(id -> idempotencyCache.put(idempotencyKey, id));
+    }
+
+    private Mono<Void> debit(Long accountId, long amount) {
+        return reactiveAccountRepository.debit(accountId, amount)
+                                        .flatMap(rows -> rows == 0
+                                                ? Mono.error(new InsufficientBalanceException(accountId))
+                                                : Mono.empty());
+    }
+
+    private Mono<Void> credit(Long accountId, long amount) {
+        return reactiveAccountRepository.credit(accountId, amount)
+                                        .flatMap(rows -> rows == 0
+                                                ? Mono.error(new AccountNotFoundException(accountId))
+                                                : Mono.empty());
+    }
+
+    private Account account(List<Account> accounts, Long accountId) {
+        for (Account account : accounts) {
+            if (account.getId().equals(accountId)) {
+                return account;
+            }
+        }
+        throw new AccountNotFoundException(accountId);
+    }
+}
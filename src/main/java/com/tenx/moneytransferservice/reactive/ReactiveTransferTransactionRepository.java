@@ -0,0 +1,63 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@link com.tenx.moneytransferservice.repository.TransferTransactionRepository}
+ * on the table mapped by {@link TransferTransaction}.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveTransferTransactionRepository {
+
+    @Autowired
+    DatabaseClient databaseClient;
+    @Autowired
+    ReactiveSequence reactiveSequence;
+
+    public Mono<TransferTransaction> save(TransferTransaction transferTransaction) {
+        return reactiveSequence.nextId("transfer_transaction_seq")
+                               .flatMap(id -> {
+                                   DatabaseClient.GenericExecuteSpec insert = databaseClient
+                                           .sql("INSERT INTO transfer_transaction (id, source_account_id, target_account_id, amount, created_at, idempotency_key) " +
+                                                "VALUES (:id, :sourceAccountId, :targetAccountId, :amount, :createdAt, :idempotencyKey)")
+                                           .bind("id", id)
+                                           .bind("sourceAccountId", transferTransaction.getSourceAccount().getId())
+                                           .bind("targetAccountId", transferTransaction.getTargetAccount().getId())
+                                           .bind("amount", transferTransaction.getAmount())
+                                           .bind("createdAt", transferTransaction.getCreatedAt());
+                                   insert = transferTransaction.getIdempotencyKey() == null
+                                           ? insert.bindNull("idempotencyKey", String.class)
+                                           : insert.bind("idempotencyKey", transferTransaction.getIdempotencyKey());
+                                   transferTransaction.setId(id);
+                                   return insert.then().thenReturn(transferTransaction);
+                               });
+    }
+
+    public Mono<Void> saveOutboxEvent(TransferOutboxEvent event) {
+        return reactiveSequence.nextId("transfer_outbox_seq")
+                               .flatMap(id -> databaseClient
+                                       .sql("INSERT INTO transfer_outbox (id, transfer_id, source_account_id, target_account_id, amount, created_at) " +
+                                            "VALUES (:id, :transferId, :sourceAccountId, :targetAccountId, :amount, :createdAt)")
+                                       .bind("id", id)
+                                       .bind("transferId", event.getTransferId())
+                                       .bind("sourceAccountId", event.getSourceAccountId())
+                                       .bind("targetAccountId", event.getTargetAccountId())
+                                       .bind("amount", event.getAmount())
+                                       .bind("createdAt", event.getCreatedAt())
+                                       .then());
+    }
+
+    public Mono<Long> findIdByIdempotencyKey(String idempotencyKey) {
+        return databaseClient.sql("SELECT id FROM transfer_transaction WHERE idempotency_key = :idempotencyKey")
+                             .bind("idempotencyKey", idempotencyKey)
+                             .map((row, metadata) -> row.get("id", Long.class))
+                             .one();
+    }
+}
@@ -0,0 +1,90 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.controller.AccountDTO;
+import com.tenx.moneytransferservice.controller.ResponseDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ * Handlers of the reactive stack, with the request and response contract of
+ * {@link com.tenx.moneytransferservice.controller.TransferTransactionController} and
+ * {@link com.tenx.moneytransferservice.controller.AccountController}.
+ */
+@Component
+@Profile("reactive")
+public class TransferHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferHandler.class);
+
+    @Autowired
+    ReactiveTransferService reactiveTransferService;
+    @Autowired
+    ReactiveAccountService reactiveAccountService;
+    @Autowired
+    TransferMetrics transferMetrics;
+
+    /**
+     * creates money transfer transaction, a repeated Idempotency-Key returns the transfer created by the first request
+     */
+    public Mono<ServerResponse> createMoneyTransferTransaction(ServerRequest request) {
+        String idempotencyKey = request.headers().firstHeader("Idempotency-Key");
+        Mono<Long> previousTransferId = idempotencyKey == null ? Mono.empty() : reactiveTransferService.findTransferId(idempotencyKey);
+        return previousTransferId
+                .switchIfEmpty(Mono.defer(() -> request.bodyToMono(TransferTransactionDTO.class)
+                        .flatMap(transfer -> reactiveTransferService.transfer(transfer.getSourceAccountId(),
+                                                                              transfer.getTargetAccountId(),
+                                                                              transfer.getAmount(),
+                                                                              idempotencyKey))
+                        .map(transferTransaction -> transferTransaction.getId())
+                        // a concurrent request with the same key committed first
+                        .onErrorResume(DataIntegrityViolationException.class, e -> idempotencyKey == null
+                                ? Mono.error(e)
+                                : reactiveTransferService.findTransferId(idempotencyKey).switchIfEmpty(Mono.error(e)))))
+                .flatMap(transferId -> ServerResponse.created(URI.create("/v1/transfers/" + transferId)).build())
+                .onErrorResume(AccountNotFoundException.class, e -> {
+                    logger.error("Account not found {}", e.getMessage());
+                    transferMetrics.rejected(e);
+                    return error(HttpStatus.NOT_FOUND, e.getMessage());
+                })
+                .onErrorResume(e -> e instanceof InsufficientBalanceException
+                        || e instanceof TransferBetweenSameAccountException
+                        || e instanceof CurrencyMismatchException, e -> {
+                    logger.error("Validation rules are not match {}", e.getMessage());
+                    transferMetrics.rejected((RuntimeException) e);
+                    return error(HttpStatus.BAD_REQUEST, e.getMessage());
+                })
+                .onErrorResume(e -> {
+                    logger.error("Exception has occurred {}", e.getMessage());
+                    return error(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+                });
+    }
+
+    /**
+     * creates account
+     */
+    public Mono<ServerResponse> createAccount(ServerRequest request) {
+        return request.bodyToMono(AccountDTO.class)
+                      .flatMap(reactiveAccountService::saveAccount)
+                      .flatMap(accountId -> ServerResponse.created(URI.create("/v1/accounts/" + accountId)).build());
+    }
+
+    private Mono<ServerResponse> error(HttpStatus status, String message) {
+        return ServerResponse.status(status).bodyValue(ResponseDTO.builder().message(message).build());
+    }
+}
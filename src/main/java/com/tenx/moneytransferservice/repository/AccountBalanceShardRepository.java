@@ -0,0 +1,37 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.AccountBalanceShard;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+import java.util.List;
+
+public interface AccountBalanceShardRepository extends JpaRepository<AccountBalanceShard, Long> {
+
+    @Query("select s.shardIndex from AccountBalanceShard s where s.account.id = :accountId and s.balance >= :amount")
+    List<Integer> findShardIndexesCovering(@Param("accountId") Long accountId, @Param("amount") long amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AccountBalanceShard s where s.account.id = :accountId order by s.shardIndex")
+    List<AccountBalanceShard> findByAccountIdForUpdate(@Param("accountId") Long accountId);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceShard s where s.account.id = :accountId")
+    long sumBalance(@Param("accountId") Long accountId);
+
+    @Transactional
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance - :amount, s.version = s.version + 1 " +
+           "where s.account.id = :accountId and s.shardIndex = :shardIndex and s.balance >= :amount")
+    int debit(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex, @Param("amount") long amount);
+
+    @Transactional
+    @Modifying
+    @Query("update AccountBalanceShard s set s.balance = s.balance + :amount, s.version = s.version + 1 " +
+           "where s.account.id = :accountId and s.shardIndex = :shardIndex")
+    int credit(@Param("accountId") Long accountId, @Param("shardIndex") int shardIndex, @Param("amount") long amount);
+}
@@ -0,0 +1,17 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+
+    /**
+     * snapshots of one replay shard, folding the id like {@link AccountRepository#findByShard}
+     */
+    @Query("select s from AccountBalanceSnapshot s where mod(mod(s.accountId, :shards) + mod(s.accountId / 4096, :shards) + mod(s.accountId / 4194304, :shards), :shards) = :shard")
+    List<AccountBalanceSnapshot> findByShard(@Param("shard") int shard, @Param("shards") int shards);
+}
@@ -0,0 +1,34 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.AccountDailyBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountDailyBalanceRepository extends JpaRepository<AccountDailyBalance, Long> {
+
+    @Query("select b from AccountDailyBalance b where b.accountId = :accountId and b.day between :from and :to order by b.day")
+    List<AccountDailyBalance> findByAccountIdBetween(@Param("accountId") Long accountId,
+                                                     @Param("from") LocalDate from,
+                                                     @Param("to") LocalDate to);
+
+    Optional<AccountDailyBalance> findFirstByAccountIdAndDayLessThanOrderByDayDesc(Long accountId, LocalDate day);
+
+    Optional<AccountDailyBalance> findFirstByAccountIdAndDayGreaterThanEqualOrderByDay(Long accountId, LocalDate day);
+
+    /**
+     * last day the account had transfers on, among the rolled up days
+     */
+    @Query("select max(b.day) from AccountDailyBalance b where b.accountId = :accountId")
+    LocalDate findLastDay(@Param("accountId") Long accountId);
+
+    /**
+     * last rolled up day with any transfer
+     */
+    @Query("select max(b.day) from AccountDailyBalance b")
+    LocalDate findLastDay();
+}
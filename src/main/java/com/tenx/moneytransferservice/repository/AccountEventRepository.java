@@ -0,0 +1,25 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.AccountEvent;
+import com.tenx.moneytransferservice.model.AccountEventTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    /**
+     * sums the events after the snapshot of every account of the shard, folding the id like {@link AccountRepository#findByShard}
+     */
+    @Query("select new com.tenx.moneytransferservice.model.AccountEventTotal(e.accountId, sum(e.amount), max(e.id)) from AccountEvent e " +
+           "where mod(mod(e.accountId, :shards) + mod(e.accountId / 4096, :shards) + mod(e.accountId / 4194304, :shards), :shards) = :shard " +
+           "and e.id > coalesce((select s.lastEventId from AccountBalanceSnapshot s where s.accountId = e.accountId), 0) " +
+           "group by e.accountId")
+    List<AccountEventTotal> sumAfterSnapshots(@Param("shard") int shard, @Param("shards") int shards);
+
+    @Query("select new com.tenx.moneytransferservice.model.AccountEventTotal(e.accountId, sum(e.amount), max(e.id)) from AccountEvent e " +
+           "where e.accountId = :accountId and e.id > :lastEventId group by e.accountId")
+    List<AccountEventTotal> sumAfter(@Param("accountId") Long accountId, @Param("lastEventId") long lastEventId);
+}
@@ -3,8 +3,14 @@ package com.tenx.moneytransferservice.repository;
 import com.tenx.moneytransferservice.model.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
@@ -12,4 +18,49 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Override
     @Lock(LockModeType.OPTIMISTIC)
     Optional<Account> findById(Long aLong);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.id = :id")
+    Optional<Account> findByIdForUpdate(@Param("id") Long id);
+
+    List<Account> findByBalanceShardsNotNull();
+
+    /**
+     * balance of the account before the given time, from its row, its shards, its pending credits and its transfers since,
+     * all read by one statement so a transfer committing meanwhile is either in every part or in none
+     */
+    @Query("select a.balance" +
+           " + (select coalesce(sum(s.balance), 0) from AccountBalanceShard s where s.account.id = a.id)" +
+           " + (select coalesce(sum(p.amount), 0) from PendingCredit p where p.accountId = a.id)" +
+           " + (select coalesce(sum(t.amount), 0) from TransferTransaction t where t.sourceAccount.id = a.id and t.createdAt >= :time)" +
+           " - (select coalesce(sum(t.amount), 0) from TransferTransaction t where t.targetAccount.id = a.id and t.createdAt >= :time)" +
+           " from Account a where a.id = :id")
+    Optional<Long> findBalanceBefore(@Param("id") Long id, @Param("time") LocalDateTime time);
+
+    /**
+     * balance before the given time of an event sourced account, whose row keeps its opening balance, read by one statement
+     */
+    @Query("select a.balance" +
+           " + (select coalesce(sum(t.amount), 0) from TransferTransaction t where t.targetAccount.id = a.id and t.createdAt < :time)" +
+           " - (select coalesce(sum(t.amount), 0) from TransferTransaction t where t.sourceAccount.id = a.id and t.createdAt < :time)" +
+           " from Account a where a.id = :id")
+    Optional<Long> findOpeningBalanceBefore(@Param("id") Long id, @Param("time") LocalDateTime time);
+
+    /**
+     * accounts of one replay shard. Ids are folded rather than taken modulo directly, sequence ids vary in the low bits,
+     * snowflake ids in the millisecond above the 12 counter and 10 node bits, see {@link com.tenx.moneytransferservice.model.AccountPartitions}.
+     * Every replay query has to use the same fold.
+     */
+    @Query("select a from Account a where mod(mod(a.id, :shards) + mod(a.id / 4096, :shards) + mod(a.id / 4194304, :shards), :shards) = :shard")
+    List<Account> findByShard(@Param("shard") int shard, @Param("shards") int shards);
+
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 where a.id = :id and a.balance >= :amount")
+    int debit(@Param("id") Long id, @Param("amount") long amount);
+
+    @Transactional
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 where a.id = :id")
+    int credit(@Param("id") Long id, @Param("amount") long amount);
 }
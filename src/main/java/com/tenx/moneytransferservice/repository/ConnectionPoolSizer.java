@@ -0,0 +1,50 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool from the core count, enabled with {@code datasource.pool.size-from-cores}.
+ * The pool gets cores * {@code datasource.pool.connections-per-core} + {@code datasource.pool.spindles} connections
+ * and keeps all of them open. More connections than that only queue up inside the database,
+ * transfers waiting for a connection wait in the pool instead.
+ * An explicit {@code spring.datasource.hikari.maximum-pool-size} wins.
+ */
+@Component
+@ConditionalOnProperty(name = "datasource.pool.size-from-cores", havingValue = "true")
+public class ConnectionPoolSizer implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolSizer.class);
+    private static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    @Autowired
+    Environment environment;
+
+    @Value("${datasource.pool.connections-per-core:2}")
+    int connectionsPerCore;
+    @Value("${datasource.pool.spindles:1}")
+    int spindles;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+            HikariDataSource dataSource = (HikariDataSource) bean;
+            int poolSize = poolSize(Runtime.getRuntime().availableProcessors());
+            dataSource.setMaximumPoolSize(poolSize);
+            dataSource.setMinimumIdle(poolSize);
+            logger.info("Connection pool sized to {} connections", poolSize);
+        }
+        return bean;
+    }
+
+    int poolSize(int cores) {
+        return cores * connectionsPerCore + spindles;
+    }
+}
@@ -0,0 +1,7 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.LedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface LedgerCheckpointRepository extends JpaRepository<LedgerCheckpoint, Long> {
+}
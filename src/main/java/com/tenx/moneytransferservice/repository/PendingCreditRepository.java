@@ -0,0 +1,26 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.PendingCredit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface PendingCreditRepository extends JpaRepository<PendingCredit, Long> {
+
+    List<PendingCredit> findByAccountId(Long accountId);
+
+    @Query("select coalesce(sum(p.amount), 0) from PendingCredit p where p.accountId = :accountId")
+    long sumByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select distinct p.accountId from PendingCredit p")
+    List<Long> findAccountIds();
+
+    @Transactional
+    @Modifying
+    @Query("delete from PendingCredit p where p.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
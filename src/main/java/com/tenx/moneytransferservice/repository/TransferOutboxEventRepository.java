@@ -0,0 +1,27 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+
+public interface TransferOutboxEventRepository extends JpaRepository<TransferOutboxEvent, Long> {
+
+    /**
+     * oldest events first, locked so a second relay waits instead of publishing them again
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from TransferOutboxEvent e order by e.id")
+    List<TransferOutboxEvent> findOldestForUpdate(Pageable pageable);
+
+    @Modifying
+    @Query("delete from TransferOutboxEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
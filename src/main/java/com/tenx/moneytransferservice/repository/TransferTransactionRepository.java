@@ -1,7 +1,75 @@
 package com.tenx.moneytransferservice.repository;
 
+import com.tenx.moneytransferservice.controller.TransferHistoryDTO;
+import com.tenx.moneytransferservice.model.AccountTransferTotal;
 import com.tenx.moneytransferservice.model.TransferTransaction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface TransferTransactionRepository extends JpaRepository<TransferTransaction,Long> {
+
+    @Query("select t.id from TransferTransaction t where t.idempotencyKey = :idempotencyKey")
+    Optional<Long> findIdByIdempotencyKey(@Param("idempotencyKey") String idempotencyKey);
+
+    @Query("select coalesce(max(t.id), 0) from TransferTransaction t")
+    long findMaxId();
+
+    /**
+     * transfers out of the account older than the (createdAt, id) seek position, newest first, served by idx_transfer_source_created.
+     * Only the first page of the pageable is read, so no count query runs.
+     */
+    @Query("select new com.tenx.moneytransferservice.controller.TransferHistoryDTO(t.id, t.sourceAccount.id, t.targetAccount.id, t.amount, t.createdAt) " +
+           "from TransferTransaction t where t.sourceAccount.id = :accountId " +
+           "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+           "order by t.createdAt desc, t.id desc")
+    List<TransferHistoryDTO> findOutgoingBefore(@Param("accountId") Long accountId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    /**
+     * transfers into the account older than the (createdAt, id) seek position, newest first, served by idx_transfer_target_created
+     */
+    @Query("select new com.tenx.moneytransferservice.controller.TransferHistoryDTO(t.id, t.sourceAccount.id, t.targetAccount.id, t.amount, t.createdAt) " +
+           "from TransferTransaction t where t.targetAccount.id = :accountId " +
+           "and (t.createdAt < :createdAt or (t.createdAt = :createdAt and t.id < :id)) " +
+           "order by t.createdAt desc, t.id desc")
+    List<TransferHistoryDTO> findIncomingBefore(@Param("accountId") Long accountId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    /**
+     * transfers out of the account since the given time, oldest first
+     */
+    @Query("select new com.tenx.moneytransferservice.controller.TransferHistoryDTO(t.id, t.sourceAccount.id, t.targetAccount.id, t.amount, t.createdAt) " +
+           "from TransferTransaction t where t.sourceAccount.id = :accountId and t.createdAt >= :from order by t.createdAt, t.id")
+    List<TransferHistoryDTO> findOutgoingSince(@Param("accountId") Long accountId, @Param("from") LocalDateTime from);
+
+    /**
+     * transfers into the account since the given time, oldest first
+     */
+    @Query("select new com.tenx.moneytransferservice.controller.TransferHistoryDTO(t.id, t.sourceAccount.id, t.targetAccount.id, t.amount, t.createdAt) " +
+           "from TransferTransaction t where t.targetAccount.id = :accountId and t.createdAt >= :from order by t.createdAt, t.id")
+    List<TransferHistoryDTO> findIncomingSince(@Param("accountId") Long accountId, @Param("from") LocalDateTime from);
+
+    @Query("select new com.tenx.moneytransferservice.model.AccountTransferTotal(t.sourceAccount.id, sum(t.amount), count(t)) " +
+           "from TransferTransaction t where t.createdAt >= :from and t.createdAt < :to group by t.sourceAccount.id")
+    List<AccountTransferTotal> sumOutgoingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("select new com.tenx.moneytransferservice.model.AccountTransferTotal(t.targetAccount.id, sum(t.amount), count(t)) " +
+           "from TransferTransaction t where t.createdAt >= :from and t.createdAt < :to group by t.targetAccount.id")
+    List<AccountTransferTotal> sumIncomingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * time of the first transfer at or after the given time, served by idx_transfer_created
+     */
+    @Query("select min(t.createdAt) from TransferTransaction t where t.createdAt >= :from")
+    LocalDateTime findFirstCreatedAtFrom(@Param("from") LocalDateTime from);
 }
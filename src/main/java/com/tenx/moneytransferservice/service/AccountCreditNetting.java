@@ -0,0 +1,126 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.cache.AccountCache;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.PendingCredit;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.PendingCreditRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nets credits to hot accounts, enabled with {@code account.netting.enabled}.
+ * Instead of updating the account row for every credit, each credit is inserted as a {@link PendingCredit} row in the
+ * transaction of the transfer, so it commits or rolls back with it and survives a crash. Pending credits are applied
+ * periodically as one UPDATE per account, deleting the rows applied, and whatever is left is applied on start.
+ * Debits apply the pending credits of the account first, so they see every credit committed before them.
+ * Reads of the account outside a debit see the balance without the credits that are not applied yet.
+ */
+@Component
+public class AccountCreditNetting {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountCreditNetting.class);
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    PendingCreditRepository pendingCreditRepository;
+    @Autowired
+    AccountCache accountCache;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Value("${account.netting.enabled:false}")
+    boolean enabled;
+    /** accounts to net, every account when empty */
+    @Value("${account.netting.account-ids:}")
+    Set<Long> accountIds;
+
+    /**
+     * records the credit in the current transaction
+     * @return false when the account is not netted, the caller has to credit the account itself then
+     */
+    public boolean credit(Long accountId, long amount) {
+        if (!isNetted(accountId)) {
+            return false;
+        }
+        pendingCreditRepository.save(PendingCredit.builder().accountId(accountId).amount(amount).build());
+        return true;
+    }
+
+    /**
+     * applies the pending credits of the account with a single UPDATE in the current transaction.
+     * Fails with an optimistic locking failure when another flush applied some of them first.
+     */
+    public void flush(Long accountId) {
+        if (isNetted(accountId)) {
+            apply(accountId);
+        }
+    }
+
+    private void apply(Long accountId) {
+        List<PendingCredit> credits = pendingCreditRepository.findByAccountId(accountId);
+        if (credits.isEmpty()) {
+            return;
+        }
+        long minorUnits = 0;
+        List<Long> creditIds = new ArrayList<>(credits.size());
+        for (PendingCredit credit : credits) {
+            minorUnits = Money.add(minorUnits, credit.getAmount());
+            creditIds.add(credit.getId());
+        }
+        // a concurrent flush deleted some of them first, credits committed since are left for the next flush
+        if (pendingCreditRepository.deleteByIds(creditIds) != creditIds.size()) {
+            throw new ObjectOptimisticLockingFailureException(Account.class, accountId);
+        }
+        if (accountRepository.credit(accountId, minorUnits) == 0) {
+            logger.warn("Dropping pending credits of {} for deleted account {}", minorUnits, accountId);
+        }
+        accountCache.evictAfterCompletion(accountId);
+    }
+
+    @Scheduled(fixedDelayString = "${account.netting.flush-interval-ms:50}")
+    public void flushPending() {
+        if (enabled) {
+            flushAll();
+        }
+    }
+
+    /**
+     * applies pending credits of every account, each in its own transaction so no more than one row is held at a time.
+     * Runs on start, for credits left by the last shutdown or crash, whether their accounts are still netted or not.
+     */
+    @PostConstruct
+    public void flushAll() {
+        for (Long accountId : pendingCreditRepository.findAccountIds()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(accountId));
+            } catch (RuntimeException e) {
+                logger.warn("Flushing pending credits of account {} failed, retrying on the next flush", accountId, e);
+            }
+        }
+    }
+
+    /**
+     * @return credits committed to the account but not applied yet
+     */
+    public long pending(Long accountId) {
+        return pendingCreditRepository.sumByAccountId(accountId);
+    }
+
+    private boolean isNetted(Long accountId) {
+        return enabled && (accountIds.isEmpty() || accountIds.contains(accountId));
+    }
+}
@@ -2,17 +2,35 @@ package com.tenx.moneytransferservice.service;
 
 import com.tenx.moneytransferservice.controller.AccountDTO;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
 import com.tenx.moneytransferservice.model.Account;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public interface AccountService {
 
     Account findAccount(Long accountId) throws AccountNotFoundException;
-    Account debitAccount(Account sourceAccount, BigDecimal amount);
-    Account creditAccount(Account targetAccount,BigDecimal amount);
+    /**
+     * loads the accounts with a single query, missing ids are skipped
+     */
+    List<Account> findAccounts(Collection<Long> accountIds);
+    Account debitAccount(Account sourceAccount, long amount);
+    Account creditAccount(Account targetAccount,long amount);
+    /**
+     * debits with a single conditional UPDATE that only matches while the balance covers the amount
+     */
+    void debitAccount(Long sourceAccountId, long amount) throws InsufficientBalanceException;
+    /**
+     * credits with a single UPDATE, or leaves the credit pending when the account is netted
+     */
+    void creditAccount(Long targetAccountId, long amount);
+    /**
+     * @return balance of the account including its balance shards, without credits still pending for a netted account
+     */
+    long findBalance(Long accountId) throws AccountNotFoundException;
     Long saveAccount(AccountDTO accountDTO);
 
 
@@ -1,43 +1,128 @@
 package com.tenx.moneytransferservice.service;
 
+import com.tenx.moneytransferservice.cache.AccountCache;
 import com.tenx.moneytransferservice.controller.AccountDTO;
+import com.tenx.moneytransferservice.eventsourced.AccountBalanceProjection;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
 import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Money;
 import com.tenx.moneytransferservice.repository.AccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 public class AccountServiceImpl implements  AccountService{
 
     @Autowired
     AccountRepository accountRepository;
+    @Autowired
+    AccountCache accountCache;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    AccountCreditNetting accountCreditNetting;
+    @Autowired
+    AccountShardService accountShardService;
+    /** only present in event sourced mode, where account rows keep their opening balance */
+    @Autowired(required = false)
+    AccountBalanceProjection accountBalanceProjection;
 
 
     @Override
     public Account findAccount(Long accountId)  {
-        return accountRepository.findById(accountId).orElseThrow(() -> new AccountNotFoundException("Account does not exist : " + accountId));
+        return transferMetrics.timeAccount("findAccount", () -> {
+            Account account = accountCache.get(accountId);
+            if (account == null) {
+                account = accountRepository.findById(accountId).orElseThrow(() -> new AccountNotFoundException(accountId));
+                accountCache.put(account);
+            }
+            return account;
+        });
+    }
+
+
+    @Override
+    public List<Account> findAccounts(Collection<Long> accountIds) {
+        return accountRepository.findAllById(accountIds);
+    }
+
+    @Override
+    public Account debitAccount(Account sourceAccount, long amount) {
+        return transferMetrics.timeAccount("debitAccount", () -> {
+            sourceAccount.setBalance(Money.subtract(sourceAccount.getBalance(), amount));
+            return save(sourceAccount);
+        });
+    }
+
+    @Override
+    public Account creditAccount(Account targetAccount, long amount) {
+        return transferMetrics.timeAccount("creditAccount", () -> {
+            targetAccount.setBalance(Money.add(targetAccount.getBalance(), amount));
+            return save(targetAccount);
+        });
     }
 
 
     @Override
-    public Account debitAccount(Account sourceAccount, BigDecimal amount) {
-        sourceAccount.setBalance(sourceAccount.getBalance().subtract(amount));
-        return accountRepository.save(sourceAccount);
+    public void debitAccount(Long sourceAccountId, long amount) {
+        transferMetrics.timeAccount("debitAccount", () -> {
+            accountCreditNetting.flush(sourceAccountId);
+            if (accountShardService.isSharded(sourceAccountId)) {
+                accountShardService.debit(sourceAccountId, amount);
+            } else if (accountRepository.debit(sourceAccountId, amount) == 0) {
+                throw new InsufficientBalanceException(sourceAccountId);
+            }
+            accountCache.evictAfterCompletion(sourceAccountId);
+        });
     }
 
     @Override
-    public Account creditAccount(Account targetAccount, BigDecimal amount) {
-        targetAccount.setBalance(targetAccount.getBalance().add(amount));
-        return accountRepository.save(targetAccount);
+    public void creditAccount(Long targetAccountId, long amount) {
+        transferMetrics.timeAccount("creditAccount", () -> {
+            if (accountCreditNetting.credit(targetAccountId, amount)) {
+                return;
+            }
+            if (accountShardService.isSharded(targetAccountId)) {
+                accountShardService.credit(targetAccountId, amount);
+            } else if (accountRepository.credit(targetAccountId, amount) == 0) {
+                throw new AccountNotFoundException(targetAccountId);
+            }
+            accountCache.evictAfterCompletion(targetAccountId);
+        });
     }
 
+    @Override
+    public long findBalance(Long accountId) {
+        if (accountBalanceProjection != null) {
+            return accountBalanceProjection.balance(accountId);
+        }
+        return accountShardService.balance(accountId);
+    }
 
     @Override
     public Long saveAccount(AccountDTO accountDTO)  {
-        return accountRepository.save(Account.builder().currency(accountDTO.getCurrency()).createdAt(LocalDateTime.now()).build()).getId();
+        Long accountId = accountRepository.save(Account.builder().currency(accountDTO.getCurrency()).createdAt(LocalDateTime.now()).build()).getId();
+        if (accountDTO.getBalanceShards() != null) {
+            accountShardService.shardAccount(accountId, accountDTO.getBalanceShards());
+        }
+        return accountId;
+    }
+
+    private Account save(Account account) {
+        try {
+            Account savedAccount = accountRepository.save(account);
+            accountCache.refreshAfterCommit(savedAccount);
+            return savedAccount;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            accountCache.evict(account.getId());
+            throw e;
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import org.springframework.stereotype.Service;
+
+
+@Service
+public interface AccountShardService {
+    /**
+     * spreads the whole balance of the account evenly over the given number of shards, 0 moves it back to the account row
+     */
+    void shardAccount(Long accountId, int balanceShards) throws AccountNotFoundException;
+    boolean isSharded(Long accountId);
+    /**
+     * @return balance of the account row plus the balance of its shards
+     */
+    long balance(Long accountId) throws AccountNotFoundException;
+    /**
+     * credits a random shard of a sharded account
+     */
+    void credit(Long accountId, long amount);
+    /**
+     * debits a shard covering the amount, rebalancing the account when no single shard does
+     * @throws org.springframework.orm.ObjectOptimisticLockingFailureException when a concurrent debit drained the chosen shard
+     */
+    void debit(Long accountId, long amount) throws InsufficientBalanceException;
+}
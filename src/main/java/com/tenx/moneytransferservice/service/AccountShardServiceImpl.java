@@ -0,0 +1,173 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.cache.AccountCache;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountBalanceShard;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceShardRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Splits the balance of hot accounts over {@link AccountBalanceShard} rows, so concurrent transfers update different rows.
+ * Credits go to a random shard, debits to a random shard that covers the amount. When no single shard does, the account is
+ * rebalanced: the row and all shards are locked in index order, the debit is taken from their total and the rest is spread evenly again.
+ * A debit losing the race for its shard fails as an optimistic lock conflict and is retried like one.
+ * The shard count of every sharded account is kept in memory, so unsharded accounts pay no extra query.
+ */
+@Service
+public class AccountShardServiceImpl implements AccountShardService {
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    AccountBalanceShardRepository accountBalanceShardRepository;
+    @Autowired
+    AccountCache accountCache;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (Account account : accountRepository.findByBalanceShardsNotNull()) {
+            shardCounts.put(account.getId(), account.getBalanceShards());
+        }
+    }
+
+    @Transactional
+    @Override
+    public void shardAccount(Long accountId, int balanceShards) {
+        if (balanceShards < 0) {
+            throw new IllegalArgumentException("Balance shard count can not be negative : " + balanceShards);
+        }
+        Account account = lockAccount(accountId);
+        List<AccountBalanceShard> shards = lockShards(accountId);
+        long total = total(account, shards);
+        account.setBalanceShards(balanceShards == 0 ? null : balanceShards);
+        account.setBalance(balanceShards == 0 ? total : 0);
+        distribute(account, shards, balanceShards, total);
+        accountCache.evictAfterCompletion(accountId);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (balanceShards == 0) {
+                    shardCounts.remove(accountId);
+                } else {
+                    shardCounts.put(accountId, balanceShards);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean isSharded(Long accountId) {
+        return shardCounts.containsKey(accountId);
+    }
+
+    @Override
+    public long balance(Long accountId) {
+        Account account = accountRepository.findById(accountId).orElseThrow(() -> new AccountNotFoundException(accountId));
+        return Money.add(account.getBalance(), accountBalanceShardRepository.sumBalance(accountId));
+    }
+
+    @Override
+    public void credit(Long accountId, long amount) {
+        int shardIndex = ThreadLocalRandom.current().nextInt(shardCounts.get(accountId));
+        if (accountBalanceShardRepository.credit(accountId, shardIndex, amount) == 0) {
+            throw new AccountNotFoundException(accountId);
+        }
+    }
+
+    /**
+     * Both failures are thrown before anything is changed, so they leave the caller's transaction usable
+     * for callers that reject the transfer and carry on, like the group commit.
+     */
+    @Transactional(dontRollbackOn = {InsufficientBalanceException.class, ObjectOptimisticLockingFailureException.class})
+    @Override
+    public void debit(Long accountId, long amount) {
+        List<Integer> covering = accountBalanceShardRepository.findShardIndexesCovering(accountId, amount);
+        if (covering.isEmpty()) {
+            rebalance(accountId, amount);
+            return;
+        }
+        int shardIndex = covering.get(ThreadLocalRandom.current().nextInt(covering.size()));
+        if (accountBalanceShardRepository.debit(accountId, shardIndex, amount) == 0) {
+            // the shard was drained after it was read and its row stays locked by this transaction,
+            // locking the other shards now to rebalance could deadlock with a concurrent rebalance
+            throw new ObjectOptimisticLockingFailureException(Account.class, accountId);
+        }
+    }
+
+    private void rebalance(Long accountId, long amount) {
+        Account account = lockAccount(accountId);
+        List<AccountBalanceShard> shards = lockShards(accountId);
+        long total = total(account, shards);
+        if (total < amount) {
+            throw new InsufficientBalanceException(accountId);
+        }
+        account.setBalance(0);
+        distribute(account, shards, shards.size(), total - amount);
+        accountCache.evictAfterCompletion(accountId);
+    }
+
+    /**
+     * spreads the total over the shards in minor units, the first shards taking the remainder.
+     * Existing shards are reused by index and surplus ones removed, so no shard index is ever inserted twice.
+     */
+    private void distribute(Account account, List<AccountBalanceShard> shards, int balanceShards, long total) {
+        for (int index = 0; index < Math.max(balanceShards, shards.size()); index++) {
+            if (index >= balanceShards) {
+                accountBalanceShardRepository.delete(shards.get(index));
+                continue;
+            }
+            long balance = total / balanceShards + (index < total % balanceShards ? 1 : 0);
+            if (index < shards.size()) {
+                shards.get(index).setBalance(balance);
+            } else {
+                accountBalanceShardRepository.save(AccountBalanceShard.builder().account(account).shardIndex(index).balance(balance).build());
+            }
+        }
+        accountRepository.flush();
+    }
+
+    private long total(Account account, List<AccountBalanceShard> shards) {
+        long total = account.getBalance();
+        for (AccountBalanceShard shard : shards) {
+            total = Money.add(total, shard.getBalance());
+        }
+        return total;
+    }
+
+    /**
+     * locks the account row and reads it again, the persistence context may hold a copy read before conditional updates
+     */
+    private Account lockAccount(Long accountId) {
+        Account account = accountRepository.findByIdForUpdate(accountId).orElseThrow(() -> new AccountNotFoundException(accountId));
+        entityManager.refresh(account);
+        return account;
+    }
+
+    private List<AccountBalanceShard> lockShards(Long accountId) {
+        List<AccountBalanceShard> shards = accountBalanceShardRepository.findByAccountIdForUpdate(accountId);
+        shards.forEach(entityManager::refresh);
+        return shards;
+    }
+}
@@ -0,0 +1,102 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.model.AccountDailyBalance;
+import com.tenx.moneytransferservice.model.AccountTransferTotal;
+import com.tenx.moneytransferservice.repository.AccountDailyBalanceRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Rolls the transfers of every finished day up into {@link AccountDailyBalance} rows, one day per transaction and in day order,
+ * so statements only read raw transfers for the days not rolled up yet. Days without transfers are skipped.
+ * A day is rolled up once account.statement.rollup-grace has passed after its end, so transfers still committing with a
+ * timestamp of that day are not missed. Several instances may run the roll-up, the one losing the race for a day skips it.
+ */
+@Component
+public class AccountStatementRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountStatementRollup.class);
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+
+    @Autowired
+    AccountDailyBalanceRepository accountDailyBalanceRepository;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    AccountStatementService accountStatementService;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Value("${account.statement.rollup-grace:1m}")
+    Duration grace;
+
+    @Scheduled(fixedDelayString = "${account.statement.rollup-interval-ms:60000}")
+    public synchronized void rollUp() {
+        LocalDate lastClosedDay = LocalDateTime.now().minus(grace).toLocalDate().minusDays(1);
+        while (true) {
+            LocalDate lastDay = accountDailyBalanceRepository.findLastDay();
+            LocalDateTime next = transferTransactionRepository.findFirstCreatedAtFrom(
+                    lastDay == null ? FIRST_DAY.atStartOfDay() : lastDay.plusDays(1).atStartOfDay());
+            if (next == null || next.toLocalDate().isAfter(lastClosedDay)) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> rollUp(next.toLocalDate()));
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Day {} is already rolled up by another instance", next.toLocalDate());
+                return;
+            }
+        }
+    }
+
+    private void rollUp(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        Map<Long, AccountDailyBalance> balances = new TreeMap<>();
+        for (AccountTransferTotal total : transferTransactionRepository.sumOutgoingBetween(from, to)) {
+            AccountDailyBalance balance = balances.computeIfAbsent(total.getAccountId(), accountId -> dailyBalance(accountId, day));
+            balance.setDebits(total.getAmount());
+            balance.setTransferCount(balance.getTransferCount() + total.getCount());
+        }
+        for (AccountTransferTotal total : transferTransactionRepository.sumIncomingBetween(from, to)) {
+            AccountDailyBalance balance = balances.computeIfAbsent(total.getAccountId(), accountId -> dailyBalance(accountId, day));
+            balance.setCredits(total.getAmount());
+            balance.setTransferCount(balance.getTransferCount() + total.getCount());
+        }
+        List<AccountDailyBalance> rows = new ArrayList<>(balances.values());
+        for (AccountDailyBalance balance : rows) {
+            balance.setOpeningBalance(openingBalance(balance.getAccountId(), day));
+        }
+        accountDailyBalanceRepository.saveAll(rows);
+        accountDailyBalanceRepository.flush();
+        logger.debug("Rolled up {} accounts for {}", rows.size(), day);
+    }
+
+    /**
+     * the closing balance of the last rolled up day of the account, or for its first day the balance stored before it
+     */
+    private long openingBalance(Long accountId, LocalDate day) {
+        return accountDailyBalanceRepository.findFirstByAccountIdAndDayLessThanOrderByDayDesc(accountId, day)
+                                            .map(AccountDailyBalance::getClosingBalance)
+                                            .orElseGet(() -> accountStatementService.balanceBefore(accountId, day.atStartOfDay()));
+    }
+
+    private AccountDailyBalance dailyBalance(Long accountId, LocalDate day) {
+        return AccountDailyBalance.builder().accountId(accountId).day(day).build();
+    }
+}
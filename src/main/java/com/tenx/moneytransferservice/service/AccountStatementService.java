@@ -0,0 +1,26 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.StatementDTO;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Service
+public interface AccountStatementService {
+    /**
+     * @param from first day of the statement
+     * @param to last day of the statement, today at the latest
+     * @throws IllegalArgumentException when the days are not in order or in the future
+     */
+    StatementDTO findStatement(Long accountId, LocalDate from, LocalDate to) throws AccountNotFoundException;
+    /**
+     * @return balance including balance shards and credits netted but not applied yet
+     */
+    long currentBalance(Long accountId) throws AccountNotFoundException;
+    /**
+     * @return balance before the given time, derived from the stored balances and the transfers by a single statement
+     */
+    long balanceBefore(Long accountId, LocalDateTime time) throws AccountNotFoundException;
+}
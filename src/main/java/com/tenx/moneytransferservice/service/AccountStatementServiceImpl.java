@@ -0,0 +1,139 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.StatementDTO;
+import com.tenx.moneytransferservice.controller.StatementDayDTO;
+import com.tenx.moneytransferservice.controller.TransferHistoryDTO;
+import com.tenx.moneytransferservice.eventsourced.AccountBalanceProjection;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.model.AccountDailyBalance;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountDailyBalanceRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Builds statements from the {@link AccountDailyBalance} rows of the rolled up days and the raw transfers of the days after
+ * the last rolled up day of the account, normally just today, so the cost does not grow with the history of the account.
+ * The balance at the start of the raw days is read by one statement of its own, so a transfer committing while the
+ * statement is built cannot be counted in the balance but missing from the transfers, or the other way round.
+ */
+@Service
+public class AccountStatementServiceImpl implements AccountStatementService {
+
+    private static final Comparator<TransferHistoryDTO> OLDEST_FIRST =
+            Comparator.comparing(TransferHistoryDTO::getCreatedAt).thenComparing(TransferHistoryDTO::getId);
+
+    @Autowired
+    AccountDailyBalanceRepository accountDailyBalanceRepository;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    AccountService accountService;
+    @Autowired(required = false)
+    AccountBalanceProjection accountBalanceProjection;
+    @Autowired
+    AccountCreditNetting accountCreditNetting;
+
+    @Transactional
+    @Override
+    public StatementDTO findStatement(Long accountId, LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || to.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Statement days should be in order and not in the future : " + from + " - " + to);
+        }
+        LocalDate lastRolledUpDay = accountDailyBalanceRepository.findLastDay(accountId);
+        boolean rolledUp = lastRolledUpDay != null && !from.isAfter(lastRolledUpDay);
+        LocalDate rawFrom = rolledUp ? lastRolledUpDay.plusDays(1) : from;
+
+        long rawOpeningBalance = balanceBefore(accountId, rawFrom.atStartOfDay());
+        List<TransferHistoryDTO> transfers = new ArrayList<>(transferTransactionRepository.findOutgoingSince(accountId, rawFrom.atStartOfDay()));
+        transfers.addAll(transferTransactionRepository.findIncomingSince(accountId, rawFrom.atStartOfDay()));
+        transfers.sort(OLDEST_FIRST);
+
+        List<StatementDayDTO> days = new ArrayList<>();
+        long openingBalance = rawOpeningBalance;
+        if (rolledUp) {
+            List<AccountDailyBalance> rolledUpDays = accountDailyBalanceRepository.findByAccountIdBetween(accountId, from,
+                    to.isBefore(lastRolledUpDay) ? to : lastRolledUpDay);
+            rolledUpDays.forEach(day -> days.add(day(day)));
+            // without transfers between from and its first rolled up day the account opens with the balance of that day
+            openingBalance = (rolledUpDays.isEmpty()
+                    ? accountDailyBalanceRepository.findFirstByAccountIdAndDayGreaterThanEqualOrderByDay(accountId, from).orElseThrow()
+                    : rolledUpDays.get(0)).getOpeningBalance();
+        }
+        addRawDays(accountId, transfers, rawOpeningBalance, to, days);
+
+        StatementDTO statement = StatementDTO.builder().accountId(accountId).from(from).to(to).openingBalance(openingBalance).days(days).build();
+        for (StatementDayDTO day : days) {
+            statement.setDebits(Money.add(statement.getDebits(), day.getDebits()));
+            statement.setCredits(Money.add(statement.getCredits(), day.getCredits()));
+            statement.setTransferCount(statement.getTransferCount() + day.getTransferCount());
+        }
+        statement.setClosingBalance(Money.subtract(Money.add(openingBalance, statement.getCredits()), statement.getDebits()));
+        return statement;
+    }
+
+    @Override
+    public long currentBalance(Long accountId) {
+        return Money.add(accountService.findBalance(accountId), accountCreditNetting.pending(accountId));
+    }
+
+    /**
+     * Read by a single statement, the balances held outside the account row and the transfers committing meanwhile
+     * are never seen at different times. Event sourced account rows keep the opening balance of the account, so the
+     * transfers before the time are added to it, and the projection, which lags the commits, is never read.
+     */
+    @Override
+    public long balanceBefore(Long accountId, LocalDateTime time) {
+        return (accountBalanceProjection != null
+                ? accountRepository.findOpeningBalanceBefore(accountId, time)
+                : accountRepository.findBalanceBefore(accountId, time)).orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+
+    private void addRawDays(Long accountId, List<TransferHistoryDTO> transfers, long openingBalance, LocalDate to, List<StatementDayDTO> days) {
+        StatementDayDTO day = null;
+        long balance = openingBalance;
+        for (TransferHistoryDTO transfer : transfers) {
+            LocalDate transferDay = transfer.getCreatedAt().toLocalDate();
+            if (transferDay.isAfter(to)) {
+                break;
+            }
+            if (day == null || !day.getDay().equals(transferDay)) {
+                day = StatementDayDTO.builder().day(transferDay).openingBalance(balance).build();
+                days.add(day);
+            }
+            if (transfer.getSourceAccountId().equals(accountId)) {
+                day.setDebits(Money.add(day.getDebits(), transfer.getAmount()));
+            } else {
+                day.setCredits(Money.add(day.getCredits(), transfer.getAmount()));
+            }
+            day.setTransferCount(day.getTransferCount() + 1);
+            balance = Money.add(balance, signedAmount(accountId, transfer));
+            day.setClosingBalance(balance);
+        }
+    }
+
+    private StatementDayDTO day(AccountDailyBalance balance) {
+        return StatementDayDTO.builder().day(balance.getDay())
+                                        .openingBalance(balance.getOpeningBalance())
+                                        .debits(balance.getDebits())
+                                        .credits(balance.getCredits())
+                                        .transferCount(balance.getTransferCount())
+                                        .closingBalance(balance.getClosingBalance())
+                                        .build();
+    }
+
+    private long signedAmount(Long accountId, TransferHistoryDTO transfer) {
+        return transfer.getSourceAccountId().equals(accountId) ? -transfer.getAmount() : transfer.getAmount();
+    }
+}
@@ -0,0 +1,16 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public interface BatchTransferService {
+    /**
+     * applies the transfers in order, returning one result per transfer in the same order.
+     * A transfer breaking a business rule is rejected without affecting the others.
+     */
+    List<TransferResultDTO> transferBatch(List<TransferTransactionDTO> transfers);
+}
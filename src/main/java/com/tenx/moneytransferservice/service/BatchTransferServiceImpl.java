@@ -0,0 +1,136 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.cache.AccountCache;
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a whole batch in one transaction: every account involved is loaded with a single query,
+ * balances are changed on the managed entities and flushed once, and the transfer rows go out as JDBC batch inserts.
+ * Pending netted credits of the source accounts are applied before they are loaded, so debits see them.
+ * Debits of sharded accounts go to their shards through {@link AccountShardService} instead.
+ * A shard debit that loses a race with a concurrent debit fails the whole batch, as an optimistic lock conflict that is retried.
+ */
+@Service
+@Profile("!ledger & !eventsourced")
+public class BatchTransferServiceImpl implements BatchTransferService {
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    AccountCache accountCache;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @Autowired
+    AccountShardService accountShardService;
+    @Autowired
+    AccountCreditNetting accountCreditNetting;
+
+    @Transactional
+    @Override
+    public List<TransferResultDTO> transferBatch(List<TransferTransactionDTO> transfers) {
+        Set<Long> sourceAccountIds = new HashSet<>();
+        Set<Long> accountIds = new HashSet<>();
+        for (TransferTransactionDTO transfer : transfers) {
+            sourceAccountIds.add(transfer.getSourceAccountId());
+            accountIds.add(transfer.getTargetAccountId());
+        }
+        sourceAccountIds.forEach(accountCreditNetting::flush);
+        accountIds.addAll(sourceAccountIds);
+        Map<Long, Account> accounts = accountRepository.findAllById(accountIds).stream()
+                                                       .collect(Collectors.toMap(Account::getId, Function.identity()));
+        accounts.keySet().forEach(accountCache::evictAfterCompletion);
+
+        List<TransferResultDTO> results = new ArrayList<>(transfers.size());
+        List<TransferTransaction> completed = new ArrayList<>();
+        Map<Long, Long> shardedBalances = new HashMap<>();
+        for (TransferTransactionDTO transfer : transfers) {
+            try {
+                Account sourceAccount = account(accounts, transfer.getSourceAccountId());
+                Account targetAccount = account(accounts, transfer.getTargetAccountId());
+                if (accountShardService.isSharded(sourceAccount.getId())) {
+                    debitSharded(sourceAccount, targetAccount, transfer.getAmount(), shardedBalances);
+                } else {
+                    transferValidator.validate(sourceAccount, targetAccount, transfer.getAmount());
+                    sourceAccount.setBalance(Money.subtract(sourceAccount.getBalance(), transfer.getAmount()));
+                }
+                targetAccount.setBalance(Money.add(targetAccount.getBalance(), transfer.getAmount()));
+                shardedBalances.computeIfPresent(targetAccount.getId(), (accountId, balance) -> Money.add(balance, transfer.getAmount()));
+                completed.add(TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                           .targetAccount(targetAccount)
+                                                           .amount(transfer.getAmount())
+                                                           .createdAt(LocalDateTime.now())
+                                                           .build());
+                results.add(TransferResultDTO.builder().status(TransferResultDTO.Status.COMPLETED).build());
+            } catch (AccountNotFoundException | TransferBetweenSameAccountException
+                    | InsufficientBalanceException | CurrencyMismatchException e) {
+                transferMetrics.rejected(e);
+                results.add(TransferResultDTO.builder().status(TransferResultDTO.Status.REJECTED).message(e.getMessage()).build());
+            }
+        }
+
+        List<TransferTransaction> saved = transferTransactionRepository.saveAll(completed);
+        transferOutbox.appendAll(saved);
+        int next = 0;
+        for (TransferResultDTO result : results) {
+            if (result.getStatus() == TransferResultDTO.Status.COMPLETED) {
+                result.setTransferId(saved.get(next++).getId());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * The balance of a sharded account is mostly in its shard rows, so funds are checked against the balance of the account
+     * and its shards, read once and kept up to date through the batch, and the debit goes to a shard.
+     */
+    private void debitSharded(Account sourceAccount, Account targetAccount, long amount, Map<Long, Long> shardedBalances) {
+        transferValidator.validateAccounts(sourceAccount, targetAccount);
+        Long sourceAccountId = sourceAccount.getId();
+        long balance = shardedBalances.computeIfAbsent(sourceAccountId, accountShardService::balance);
+        if (balance < amount) {
+            throw new InsufficientBalanceException(sourceAccountId);
+        }
+        accountShardService.debit(sourceAccountId, amount);
+        shardedBalances.put(sourceAccountId, Money.subtract(balance, amount));
+    }
+
+    private Account account(Map<Long, Account> accounts, Long accountId) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return account;
+    }
+}
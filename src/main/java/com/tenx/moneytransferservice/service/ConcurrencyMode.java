@@ -0,0 +1,13 @@
+package com.tenx.moneytransferservice.service;
+
+/**
+ * How concurrent transfers on the same account are serialized.
+ */
+public enum ConcurrencyMode {
+    /** rely on the account version, conflicting transfers fail and are retried */
+    OPTIMISTIC,
+    /** serialize transfers in the JVM with a striped lock table keyed by account id */
+    STRIPED,
+    /** lock both account rows with SELECT ... FOR UPDATE for the whole transfer transaction */
+    PESSIMISTIC
+}
@@ -0,0 +1,11 @@
+package com.tenx.moneytransferservice.service;
+
+/**
+ * How transfer requests are executed, see {@code transfer.execution.mode}.
+ */
+public enum ExecutionMode {
+    /** on the servlet container thread that accepted the request */
+    SYNC,
+    /** on the bounded transfer executor, releasing the container thread while the transfer waits on the database */
+    ASYNC
+}
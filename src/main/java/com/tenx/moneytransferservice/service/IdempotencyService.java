@@ -0,0 +1,12 @@
+package com.tenx.moneytransferservice.service;
+
+import org.springframework.stereotype.Service;
+
+@Service
+public interface IdempotencyService {
+    /**
+     * @return id of the transfer already created with this key, null when the key is new
+     */
+    Long findTransferId(String idempotencyKey);
+    void remember(String idempotencyKey, Long transferId);
+}
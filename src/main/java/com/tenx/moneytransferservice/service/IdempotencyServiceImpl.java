@@ -0,0 +1,32 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.cache.IdempotencyCache;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    @Autowired
+    IdempotencyCache idempotencyCache;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+
+    @Override
+    public Long findTransferId(String idempotencyKey) {
+        Long transferId = idempotencyCache.get(idempotencyKey);
+        if (transferId == null) {
+            transferId = transferTransactionRepository.findIdByIdempotencyKey(idempotencyKey).orElse(null);
+            if (transferId != null) {
+                idempotencyCache.put(idempotencyKey, transferId);
+            }
+        }
+        return transferId;
+    }
+
+    @Override
+    public void remember(String idempotencyKey, Long transferId) {
+        idempotencyCache.put(idempotencyKey, transferId);
+    }
+}
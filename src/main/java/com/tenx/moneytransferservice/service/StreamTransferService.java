@@ -0,0 +1,22 @@
+package com.tenx.moneytransferservice.service;
+
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+@Service
+public interface StreamTransferService {
+    /**
+     * reads newline delimited transfers from input and writes one newline delimited result per transfer to output,
+     * committing transfers in chunks so the whole stream is never held in memory
+     */
+    void transferStream(InputStream input, OutputStream output) throws IOException;
+
+    /**
+     * same as {@link #transferStream} with transfers read as back to back
+     * {@link com.tenx.moneytransferservice.controller.TransferFrame}s, results are still newline delimited JSON
+     */
+    void transferFrameStream(InputStream input, OutputStream output) throws IOException;
+}
@@ -0,0 +1,113 @@
+package com.tenx.moneytransferservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tenx.moneytransferservice.controller.ResponseDTO;
+import com.tenx.moneytransferservice.controller.TransferFrame;
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the request body one record at a time and hands every full chunk to {@link BatchTransferService}.
+ * Reading only resumes once a chunk is committed and its results are flushed,
+ * so a slow database pushes back on the client through the socket instead of growing the heap.
+ */
+@Service
+public class StreamTransferServiceImpl implements StreamTransferService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamTransferServiceImpl.class);
+
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    BatchTransferService batchTransferService;
+    @Autowired
+    TransferRetryExecutor transferRetryExecutor;
+
+    @Value("${transfer.stream.chunk-size:500}")
+    int chunkSize;
+
+    @Override
+    public void transferStream(InputStream input, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<TransferTransactionDTO> chunk = new ArrayList<>(chunkSize);
+        try (MappingIterator<TransferTransactionDTO> transfers = objectMapper.readerFor(TransferTransactionDTO.class).readValues(input)) {
+            while (transfers.hasNextValue()) {
+                chunk.add(transfers.nextValue());
+                if (chunk.size() == chunkSize) {
+                    commit(chunk, writer, generator);
+                }
+            }
+            commit(chunk, writer, generator);
+        } catch (JsonProcessingException e) {
+            commit(chunk, writer, generator);
+            logger.error("Transfer stream is malformed {}", e.getOriginalMessage());
+            writeLine(writer, generator, ResponseDTO.builder().message("Malformed transfer record : " + e.getOriginalMessage()).build());
+        }
+        generator.close();
+    }
+
+    /**
+     * reads a chunk of frames at a time into one buffer and decodes them in place
+     */
+    @Override
+    public void transferFrameStream(InputStream input, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        List<TransferTransactionDTO> chunk = new ArrayList<>(chunkSize);
+        byte[] frames = new byte[chunkSize * TransferFrame.FRAME_SIZE];
+        int read;
+        while ((read = input.readNBytes(frames, 0, frames.length)) > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(frames, 0, read - read % TransferFrame.FRAME_SIZE);
+            while (buffer.hasRemaining()) {
+                chunk.add(TransferFrame.decode(buffer));
+            }
+            commit(chunk, writer, generator);
+            if (read % TransferFrame.FRAME_SIZE != 0) {
+                logger.error("Transfer stream ends with a truncated frame of {} bytes", read % TransferFrame.FRAME_SIZE);
+                writeLine(writer, generator, ResponseDTO.builder().message("Malformed transfer record : truncated frame of "
+                                                                           + read % TransferFrame.FRAME_SIZE + " bytes").build());
+                break;
+            }
+        }
+        generator.close();
+    }
+
+    private void commit(List<TransferTransactionDTO> chunk, ObjectWriter writer, JsonGenerator generator) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        List<TransferResultDTO> results = transferRetryExecutor.execute(() -> batchTransferService.transferBatch(chunk));
+        for (TransferResultDTO result : results) {
+            writeLine(writer, generator, result);
+        }
+        generator.flush();
+        chunk.clear();
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) throws IOException {
+        writer.writeValue(generator, value);
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,59 @@
+package com.tenx.moneytransferservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs transfers off the servlet container threads when {@code transfer.execution.mode=async}.
+ * The pool bounds how many transfers block on JDBC at once and the queue bounds how many wait for it,
+ * a full queue rejects the transfer straight away instead of letting requests pile up.
+ */
+@Component
+public class TransferAsyncExecutor {
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${transfer.execution.async.pool-size:16}")
+    int poolSize;
+    @Value("${transfer.execution.async.queue-capacity:1000}")
+    int queueCapacity;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "transfer-async-" + threadCount.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor = ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, "transfer.async");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * @throws RejectedExecutionException when the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> action) {
+        return CompletableFuture.supplyAsync(action, executor);
+    }
+}
@@ -0,0 +1,91 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.AccountPartitions;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes transfers touching the same accounts according to {@code transfer.concurrency.mode}.
+ * Locks are taken in a fixed global order, ascending stripe index for the lock table and ascending
+ * account id for row locks, so two transfers over the same accounts in opposite directions cannot deadlock.
+ */
+@Component
+public class TransferConcurrencyControl {
+
+    @Autowired
+    AccountRepository accountRepository;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    TransferMetrics transferMetrics;
+
+    @Value("${transfer.concurrency.mode:optimistic}")
+    ConcurrencyMode mode;
+    @Value("${transfer.concurrency.stripes:1024}")
+    int stripeCount;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T execute(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        return transferMetrics.trackInFlight(sourceAccountId, targetAccountId, () -> executeInMode(sourceAccountId, targetAccountId, action));
+    }
+
+    private <T> T executeInMode(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        switch (mode) {
+            case STRIPED:
+                return executeStriped(sourceAccountId, targetAccountId, action);
+            case PESSIMISTIC:
+                return executePessimistic(sourceAccountId, targetAccountId, action);
+            default:
+                return action.get();
+        }
+    }
+
+    private <T> T executeStriped(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        int sourceStripe = stripe(sourceAccountId);
+        int targetStripe = stripe(targetAccountId);
+        ReentrantLock first = stripes[Math.min(sourceStripe, targetStripe)];
+        ReentrantLock second = stripes[Math.max(sourceStripe, targetStripe)];
+        first.lock();
+        try {
+            second.lock();
+            try {
+                return action.get();
+            } finally {
+                second.unlock();
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private <T> T executePessimistic(Long sourceAccountId, Long targetAccountId, Supplier<T> action) {
+        return transactionTemplate.execute(status -> {
+            if (sourceAccountId != null && targetAccountId != null) {
+                accountRepository.findByIdForUpdate(Math.min(sourceAccountId, targetAccountId));
+                accountRepository.findByIdForUpdate(Math.max(sourceAccountId, targetAccountId));
+            }
+            return action.get();
+        });
+    }
+
+    private int stripe(Long accountId) {
+        return accountId == null ? 0 : AccountPartitions.of(accountId, stripeCount);
+    }
+}
@@ -0,0 +1,273 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.hibernate.Session;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Group commit for transfers, enabled with {@code transfer.group-commit.enabled}.
+ * Callers queue their transfer and wait, a single committer thread collects up to {@code max-batch} transfers
+ * or whatever arrived within {@code max-wait} of the first one, and applies the group in one transaction.
+ * Every transfer in a group is checked and applied on its own with the conditional updates of
+ * {@link TransferTransactionService#transfer}, inside a JDBC savepoint of the group transaction, so a rejected or failed
+ * transfer is rolled back to its savepoint and left out without rolling back the others.
+ * A transfer losing an optimistic lock race is retried on its own through {@link TransferRetryExecutor}.
+ * Callers are only completed once the group has committed.
+ * Ledger and event sourced modes keep balances outside the account rows this writes, so it only exists in the other modes.
+ */
+@Component
+@Profile("!ledger & !eventsourced")
+public class TransferGroupCommitter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferGroupCommitter.class);
+
+    @Autowired
+    AccountService accountService;
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    TransferOutbox transferOutbox;
+    @Autowired
+    TransferRetryExecutor transferRetryExecutor;
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Value("${transfer.group-commit.enabled:false}")
+    boolean enabled;
+    @Value("${transfer.group-commit.max-batch:64}")
+    int maxBatch;
+    @Value("${transfer.group-commit.max-wait:500us}")
+    Duration maxWait;
+    @Value("${transfer.group-commit.queue-capacity:10000}")
+    int queueCapacity;
+
+    private BlockingQueue<PendingTransfer> queue;
+    private Thread committer;
+    private DistributionSummary groupSize;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        groupSize = DistributionSummary.builder("transfer.group.size")
+                                       .description("Transfers committed per group")
+                                       .register(meterRegistry);
+        committer = new Thread(this::run, "transfer-group-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (committer != null) {
+            committer.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * queues the transfer and waits for its group to commit, rethrowing the transfer's rejection as is
+     * @throws RejectedExecutionException when the queue is full
+     */
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        try {
+            return submit(sourceAccountId, targetAccountId, amount, idempotencyKey).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<TransferTransaction> submit(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        PendingTransfer pending = new PendingTransfer(sourceAccountId, targetAccountId, amount, idempotencyKey);
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("Transfer group commit queue is full");
+        }
+        return pending.result;
+    }
+
+    private void run() {
+        List<PendingTransfer> group = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                group.add(queue.take());
+                long deadline = System.nanoTime() + maxWait.toNanos();
+                while (group.size() < maxBatch) {
+                    PendingTransfer next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                group.clear();
+            }
+        }
+        PendingTransfer pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new RejectedExecutionException("Transfer group commit is shutting down"));
+        }
+    }
+
+    private void commit(List<PendingTransfer> group) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(group));
+        } catch (RuntimeException e) {
+            logger.error("Transfer group of {} failed {}", group.size(), e.getMessage());
+            for (PendingTransfer pending : group) {
+                pending.failure = e;
+            }
+        }
+        groupSize.record(group.size());
+        for (PendingTransfer pending : group) {
+            if (pending.failure != null) {
+                pending.result.completeExceptionally(pending.failure);
+            } else {
+                pending.result.complete(pending.transferTransaction);
+            }
+        }
+    }
+
+    private void apply(List<PendingTransfer> group) {
+        Set<Long> accountIds = new HashSet<>();
+        for (PendingTransfer pending : group) {
+            accountIds.add(pending.sourceAccountId);
+            accountIds.add(pending.targetAccountId);
+        }
+        Map<Long, Account> accounts = accountService.findAccounts(accountIds).stream()
+                                                    .collect(Collectors.toMap(Account::getId, Function.identity()));
+        Set<String> idempotencyKeys = new HashSet<>();
+        List<TransferTransaction> completed = new ArrayList<>(group.size());
+        for (PendingTransfer pending : group) {
+            try {
+                pending.transferTransaction = transferRetryExecutor.execute(() -> inSavepoint(() -> apply(pending, accounts, idempotencyKeys)));
+                if (pending.idempotencyKey != null) {
+                    idempotencyKeys.add(pending.idempotencyKey);
+                }
+                completed.add(pending.transferTransaction);
+            } catch (RuntimeException e) {
+                pending.failure = e;
+            }
+        }
+        transferOutbox.appendAll(transferTransactionRepository.saveAll(completed));
+    }
+
+    /**
+     * Runs the action in a savepoint of the group transaction, Hibernate does not support nested transactions.
+     * On failure the savepoint is rolled back and the entities the action left dirty are detached so they are not flushed later.
+     * A failure that marked the group transaction rollback-only still fails the whole group.
+     */
+    private <T> T inSavepoint(Supplier<T> action) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            T result = action.get();
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+            return result;
+        } catch (RuntimeException e) {
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * applies one transfer and flushes it, so everything it changed is written before its savepoint is released
+     */
+    private TransferTransaction apply(PendingTransfer pending, Map<Long, Account> accounts, Set<String> idempotencyKeys) {
+        Account sourceAccount = account(accounts, pending.sourceAccountId);
+        Account targetAccount = account(accounts, pending.targetAccountId);
+        transferValidator.validateAccounts(sourceAccount, targetAccount);
+        if (pending.idempotencyKey != null && (idempotencyKeys.contains(pending.idempotencyKey)
+                || transferTransactionRepository.findIdByIdempotencyKey(pending.idempotencyKey).isPresent())) {
+            throw new DataIntegrityViolationException("Duplicate idempotency key : " + pending.idempotencyKey);
+        }
+        // funds are checked by the conditional debit, balances read above are stale once earlier transfers applied
+        accountService.debitAccount(pending.sourceAccountId, pending.amount);
+        accountService.creditAccount(pending.targetAccountId, pending.amount);
+        entityManager.flush();
+        return TransferTransaction.builder().sourceAccount(sourceAccount)
+                                            .targetAccount(targetAccount)
+                                            .amount(pending.amount)
+                                            .createdAt(LocalDateTime.now())
+                                            .idempotencyKey(pending.idempotencyKey)
+                                            .build();
+    }
+
+    private Account account(Map<Long, Account> accounts, Long accountId) {
+        Account account = accounts.get(accountId);
+        if (account == null) {
+            throw new AccountNotFoundException(accountId);
+        }
+        return account;
+    }
+
+    private static class PendingTransfer {
+        private final Long sourceAccountId;
+        private final Long targetAccountId;
+        private final long amount;
+        private final String idempotencyKey;
+        private final CompletableFuture<TransferTransaction> result = new CompletableFuture<>();
+        private TransferTransaction transferTransaction;
+        private RuntimeException failure;
+
+        private PendingTransfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+            this.sourceAccountId = sourceAccountId;
+            this.targetAccountId = targetAccountId;
+            this.amount = amount;
+            this.idempotencyKey = idempotencyKey;
+        }
+    }
+}
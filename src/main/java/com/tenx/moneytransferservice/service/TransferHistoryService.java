@@ -0,0 +1,15 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferHistoryPageDTO;
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface TransferHistoryService {
+    /**
+     * @param cursor next cursor of the previous page, null for the newest transfers
+     * @param limit page size, capped by transfer.history.max-page-size
+     * @throws IllegalArgumentException when the cursor or the limit is invalid
+     */
+    TransferHistoryPageDTO findTransfers(Long accountId, String cursor, int limit) throws AccountNotFoundException;
+}
@@ -0,0 +1,87 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferHistoryDTO;
+import com.tenx.moneytransferservice.controller.TransferHistoryPageDTO;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Pages the transfers of an account with keyset pagination: a page starts right after the (createdAt, id) of the last transfer
+ * of the previous page, so every page is an index seek on (account, createdAt, id) however deep the client pages,
+ * instead of an offset scan over the skipped rows.
+ * Outgoing and incoming transfers are read with one query each, so both use their own index, and merged newest first.
+ */
+@Service
+public class TransferHistoryServiceImpl implements TransferHistoryService {
+
+    private static final LocalDateTime NEWEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final Comparator<TransferHistoryDTO> NEWEST_FIRST =
+            Comparator.comparing(TransferHistoryDTO::getCreatedAt).thenComparing(TransferHistoryDTO::getId).reversed();
+    private static final char CURSOR_SEPARATOR = '_';
+
+    @Autowired
+    TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    AccountService accountService;
+
+    @Value("${transfer.history.max-page-size:100}")
+    int maxPageSize;
+
+    @Override
+    public TransferHistoryPageDTO findTransfers(Long accountId, String cursor, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new IllegalArgumentException("Page size should be between 1 and " + maxPageSize + " : " + limit);
+        }
+        accountService.findAccount(accountId);
+        LocalDateTime createdAt = NEWEST;
+        Long id = Long.MAX_VALUE;
+        if (cursor != null) {
+            String position = decode(cursor);
+            int separator = position.lastIndexOf(CURSOR_SEPARATOR);
+            try {
+                createdAt = LocalDateTime.parse(position.substring(0, separator));
+                id = Long.valueOf(position.substring(separator + 1));
+            } catch (DateTimeParseException | NumberFormatException | IndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Invalid cursor : " + cursor);
+            }
+        }
+        // one extra row tells whether there is a next page
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<TransferHistoryDTO> transfers = new ArrayList<>(2 * limit + 2);
+        transfers.addAll(transferTransactionRepository.findOutgoingBefore(accountId, createdAt, id, page));
+        transfers.addAll(transferTransactionRepository.findIncomingBefore(accountId, createdAt, id, page));
+        transfers.sort(NEWEST_FIRST);
+        if (transfers.size() <= limit) {
+            return TransferHistoryPageDTO.builder().transfers(transfers).build();
+        }
+        List<TransferHistoryDTO> pageTransfers = new ArrayList<>(transfers.subList(0, limit));
+        TransferHistoryDTO last = pageTransfers.get(limit - 1);
+        return TransferHistoryPageDTO.builder()
+                                     .transfers(pageTransfers)
+                                     .next(encode(last.getCreatedAt() + String.valueOf(CURSOR_SEPARATOR) + last.getId()))
+                                     .build();
+    }
+
+    private String encode(String position) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor : " + cursor);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.tenx.moneytransferservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries a transfer when it loses an optimistic lock race on an account version,
+ * sleeping a random time up to an exponentially growing ceiling between attempts (full jitter).
+ * The action must reload the accounts it works on, otherwise every attempt fails on the same stale version.
+ */
+@Component
+public class TransferRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransferRetryExecutor.class);
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Value("${transfer.retry.max-attempts:3}")
+    int maxAttempts;
+    @Value("${transfer.retry.initial-backoff-ms:10}")
+    long initialBackoffMs;
+    @Value("${transfer.retry.max-backoff-ms:200}")
+    long maxBackoffMs;
+
+    public <T> T execute(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return action.get();
+            } catch (ObjectOptimisticLockingFailureException e) {
+                Counter.builder("transfer.optimistic.retries")
+                       .description("Optimistic lock conflicts on transfers, by conflicting account")
+                       .tag("account", String.valueOf(e.getIdentifier()))
+                       .register(meterRegistry)
+                       .increment();
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+                logger.debug("Optimistic lock conflict on account {}, attempt {} of {}", e.getIdentifier(), attempt, maxAttempts);
+                backoff(attempt, e);
+                attempt++;
+            }
+        }
+    }
+
+    private void backoff(int attempt, ObjectOptimisticLockingFailureException e) {
+        long ceiling = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 30));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -4,9 +4,13 @@ import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.TransferTransaction;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 
 @Service
 public interface TransferTransactionService {
-    TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, BigDecimal amount);
+    TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, long amount);
+    /**
+     * loads, validates and transfers in one transaction
+     */
+    TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount);
+    TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey);
 }
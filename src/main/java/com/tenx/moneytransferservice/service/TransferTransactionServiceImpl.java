@@ -1,31 +1,97 @@
 package com.tenx.moneytransferservice.service;
 
+import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
 import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 @Service
+@Profile("!ledger & !eventsourced")
 public class TransferTransactionServiceImpl implements TransferTransactionService {
 
     @Autowired
     TransferTransactionRepository transferTransactionRepository;
     @Autowired
     AccountService accountService;
+    @Autowired
+    TransferValidator transferValidator;
+    @Autowired
+    TransferMetrics transferMetrics;
+    @Autowired
+    TransferOutbox transferOutbox;
+
+    @Transactional
+    @Override
+    public TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, long amount) {
+        return transferMetrics.timeTransfer("transferMoney", () -> {
+            accountService.debitAccount(sourceAccount,amount);
+            accountService.creditAccount(targetAccount,amount);
+            TransferTransaction transferTransaction = transferTransactionRepository.save(TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                                                                                      .targetAccount(targetAccount)
+                                                                                                                      .amount(amount)
+                                                                                                                      .createdAt(LocalDateTime.now())
+                                                                                                                      .build());
+            transferOutbox.append(transferTransaction);
+            return transferTransaction;
+        });
+
+    }
 
     @Transactional
     @Override
-    public TransferTransaction transferMoney(Account sourceAccount, Account targetAccount, BigDecimal amount) {
-        accountService.debitAccount(sourceAccount,amount);
-        accountService.creditAccount(targetAccount,amount);
-        return transferTransactionRepository.save(TransferTransaction.builder().sourceAccount(sourceAccount)
-                                                                               .targetAccount(targetAccount)
-                                                                               .amount(amount)
-                                                                               .build());
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount) {
+        return transfer(sourceAccountId, targetAccountId, amount, null);
+    }
+
+    /**
+     * Both accounts are read with one query and validated inside the transaction, then balances are changed with
+     * conditional UPDATEs. Funds are only checked by the debit, the account row does not hold the whole balance
+     * of a sharded account or pending credits of a netted one.
+     * Rows are updated in ascending id order so opposite transfers between the same pair cannot deadlock.
+     */
+    @Transactional
+    @Override
+    public TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, long amount, String idempotencyKey) {
+        return transferMetrics.timeTransfer("transfer", () -> {
+            List<Account> accounts = accountService.findAccounts(Arrays.asList(sourceAccountId, targetAccountId));
+            Account sourceAccount = account(accounts, sourceAccountId);
+            Account targetAccount = account(accounts, targetAccountId);
+            transferValidator.validateAccounts(sourceAccount, targetAccount);
+
+            if (sourceAccountId < targetAccountId) {
+                accountService.debitAccount(sourceAccountId, amount);
+                accountService.creditAccount(targetAccountId, amount);
+            } else {
+                accountService.creditAccount(targetAccountId, amount);
+                accountService.debitAccount(sourceAccountId, amount);
+            }
+            TransferTransaction transferTransaction = transferTransactionRepository.save(TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                                                                                      .targetAccount(targetAccount)
+                                                                                                                      .amount(amount)
+                                                                                                                      .createdAt(LocalDateTime.now())
+                                                                                                                      .idempotencyKey(idempotencyKey)
+                                                                                                                      .build());
+            transferOutbox.append(transferTransaction);
+            return transferTransaction;
+        });
+    }
 
+    private Account account(List<Account> accounts, Long accountId) {
+        for (Account account : accounts) {
+            if (account.getId().equals(accountId)) {
+                return account;
+            }
+        }
+        throw new AccountNotFoundException(accountId);
     }
 }
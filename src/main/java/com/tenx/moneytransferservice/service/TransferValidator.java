@@ -0,0 +1,43 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.exception.TransferBetweenSameAccountException;
+import com.tenx.moneytransferservice.model.Account;
+import org.springframework.stereotype.Component;
+
+
+/**
+ * Business rules a transfer has to pass before any balance is changed.
+ */
+@Component
+public class TransferValidator {
+
+    public void validate(Account sourceAccount, Account targetAccount, long amount) {
+        validateNotSameAccount(sourceAccount, targetAccount);
+        if(sourceAccount.getBalance() < amount){
+            throw new InsufficientBalanceException(sourceAccount.getId());
+        }
+        validateCurrency(sourceAccount, targetAccount);
+    }
+
+    /**
+     * validates everything except the balance, for callers that check funds against their own view of the balance
+     */
+    public void validateAccounts(Account sourceAccount, Account targetAccount) {
+        validateNotSameAccount(sourceAccount, targetAccount);
+        validateCurrency(sourceAccount, targetAccount);
+    }
+
+    private void validateNotSameAccount(Account sourceAccount, Account targetAccount) {
+        if(sourceAccount.getId().equals(targetAccount.getId())){
+            throw new TransferBetweenSameAccountException(sourceAccount.getId());
+        }
+    }
+
+    private void validateCurrency(Account sourceAccount, Account targetAccount) {
+        if(sourceAccount.getCurrency() != targetAccount.getCurrency()){
+            throw new CurrencyMismatchException(sourceAccount.getCurrency(), targetAccount.getCurrency());
+        }
+    }
+}
@@ -1,3 +1,3 @@
-INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (101,'1000', 'GBP',SYSDATE,0);
-INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (102,'2000', 'GBP',SYSDATE,0);
-INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (103,'2000', 'USD',SYSDATE,0);
\ No newline at end of file
+INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (101,100000, 'GBP',SYSDATE,0);
+INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (102,200000, 'GBP',SYSDATE,0);
+INSERT INTO ACCOUNT (ID,BALANCE, CURRENCY, CREATED_AT,VERSION) VALUES (103,200000, 'USD',SYSDATE,0);
\ No newline at end of file
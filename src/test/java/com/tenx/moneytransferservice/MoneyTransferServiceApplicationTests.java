@@ -4,11 +4,13 @@ import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
 import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
 import com.tenx.moneytransferservice.service.AccountService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
@@ -16,10 +18,10 @@ import org.springframework.http.*;
 import org.skyscreamer.jsonassert.JSONAssert;
 
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
 class MoneyTransferServiceApplicationTests {
 
 	@LocalServerPort
@@ -47,7 +49,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(notExistedTargetAccountId)
 				.sourceAccountId(notExistedSourceAccountId)
-				.amount(new BigDecimal(500)).build();
+				.amount(Money.parse("500")).build();
 
 		HttpHeaders headers = new HttpHeaders();
 
@@ -72,7 +74,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(notExistedTargetAccountId)
 				.sourceAccountId(SOURCE_ACCOUNT_ID)
-				.amount(new BigDecimal(500)).build();
+				.amount(Money.parse("500")).build();
 
 
 		HttpHeaders headers = new HttpHeaders();
@@ -98,7 +100,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(TARGET_ACCOUNT_ID)
 				.sourceAccountId(SOURCE_ACCOUNT_ID)
-				.amount(new BigDecimal(5000)).build();
+				.amount(Money.parse("5000")).build();
 
 
 		HttpHeaders headers = new HttpHeaders();
@@ -123,7 +125,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(SOURCE_ACCOUNT_ID)
 				.sourceAccountId(SOURCE_ACCOUNT_ID)
-				.amount(new BigDecimal(100)).build();
+				.amount(Money.parse("100")).build();
 
 
 		HttpHeaders headers = new HttpHeaders();
@@ -146,7 +148,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(TARGET_ACCOUNT_ID)
 				.sourceAccountId(SOURCE_ACCOUNT_ID)
-				.amount(new BigDecimal(100)).build();
+				.amount(Money.parse("100")).build();
 
 
 		HttpHeaders headers = new HttpHeaders();
@@ -170,7 +172,7 @@ class MoneyTransferServiceApplicationTests {
 		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
 				.targetAccountId(TARGET_ACCOUNT_USD_ID)
 				.sourceAccountId(SOURCE_ACCOUNT_ID)
-				.amount(new BigDecimal(100)).build();
+				.amount(Money.parse("100")).build();
 
 
 		HttpHeaders headers = new HttpHeaders();
@@ -185,6 +187,43 @@ class MoneyTransferServiceApplicationTests {
 		JSONAssert.assertEquals(expectedMessage, response.getBody(), false);
 
 	}
+	@Test
+	@DisplayName("Stream Transfer")
+	public void testStreamTransferBetweenAccounts() {
+		String body = "{\"sourceAccountId\":" + SOURCE_ACCOUNT_ID + ",\"targetAccountId\":" + TARGET_ACCOUNT_ID + ",\"amount\":\"10\"}\n" +
+				"{\"sourceAccountId\":" + SOURCE_ACCOUNT_ID + ",\"targetAccountId\":" + TARGET_ACCOUNT_USD_ID + ",\"amount\":\"10\"}\n";
+
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+		HttpEntity<String> entity = new HttpEntity<String>(body, headers);
+
+		ResponseEntity<String> response = restTemplate.exchange(
+				createPath("/v1/transfers/stream"),
+				HttpMethod.POST, entity, String.class);
+		Assertions.assertTrue(response.getStatusCode().is2xxSuccessful());
+		String[] lines = response.getBody().split("\n");
+		Assertions.assertEquals(2, lines.length);
+		Assertions.assertTrue(lines[0].contains("COMPLETED"));
+		Assertions.assertTrue(lines[1].contains("REJECTED"));
+	}
+
+	@Test
+	@DisplayName("Transfer Metrics Exposed")
+	public void testTransferMetricsExposed() {
+		TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+				.targetAccountId(SOURCE_ACCOUNT_ID)
+				.sourceAccountId(SOURCE_ACCOUNT_ID)
+				.amount(Money.parse("100")).build();
+		restTemplate.exchange(createPath("/v1/transfers"), HttpMethod.POST, new HttpEntity<TransferTransactionDTO>(transferTransactionDTO), String.class);
+
+		ResponseEntity<String> response = restTemplate.getForEntity(createPath("/actuator/prometheus"), String.class);
+		Assertions.assertTrue(response.getStatusCode().is2xxSuccessful());
+		Assertions.assertTrue(response.getBody().contains("transfer_rejections_total{reason=\"same_account\",}"));
+		Assertions.assertTrue(response.getBody().contains("transfer_duration_seconds_bucket{operation=\"transfer\",outcome=\"error\""));
+		Assertions.assertTrue(response.getBody().contains("transfer_contention "));
+	}
+
 	private String createPath(String uri) {
 		return "http://localhost:" + port + uri;
 	}
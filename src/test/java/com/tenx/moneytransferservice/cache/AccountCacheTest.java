@@ -0,0 +1,87 @@
+package com.tenx.moneytransferservice.cache;
+
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.service.AccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "account.cache.enabled=true")
+class AccountCacheTest {
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Account savedAccount;
+
+    @BeforeEach
+    public void initEach() {
+        savedAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Cached account is returned as a private copy")
+    void testCacheHitReturnsCopy() {
+        double hitsBefore = meterRegistry.counter("account.cache.requests", "result", "hit").count();
+
+        Account first = accountService.findAccount(savedAccount.getId());
+        first.setBalance(Money.parse("1"));
+        Account second = accountService.findAccount(savedAccount.getId());
+
+        Assertions.assertEquals(hitsBefore + 1, meterRegistry.counter("account.cache.requests", "result", "hit").count());
+        Assertions.assertNotSame(first, second);
+        Assertions.assertEquals(Money.parse("1000"), second.getBalance());
+    }
+
+    @Test
+    @DisplayName("Stale cached version fails on write and is refreshed on the next read")
+    void testStaleVersionFailsFastAndRefreshes() {
+        Account cached = accountService.findAccount(savedAccount.getId());
+        Account concurrentlyModified = accountRepository.findById(savedAccount.getId()).get();
+        concurrentlyModified.setBalance(Money.parse("400"));
+        accountRepository.save(concurrentlyModified);
+
+        assertThrows(
+                ObjectOptimisticLockingFailureException.class,
+                () -> accountService.debitAccount(cached, Money.parse("100"))
+        );
+
+        Account refreshed = accountService.findAccount(savedAccount.getId());
+        Assertions.assertEquals(Money.parse("400"), refreshed.getBalance());
+    }
+
+    @Test
+    @DisplayName("Successful write refreshes the cached version")
+    void testWriteRefreshesCache() {
+        Account cached = accountService.findAccount(savedAccount.getId());
+        accountService.debitAccount(cached, Money.parse("100"));
+
+        Account afterDebit = accountService.findAccount(savedAccount.getId());
+        accountService.debitAccount(afterDebit, Money.parse("100"));
+
+        Assertions.assertEquals(Money.parse("800"), accountRepository.findById(savedAccount.getId()).get().getBalance());
+    }
+}
@@ -2,10 +2,14 @@ package com.tenx.moneytransferservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
 import com.tenx.moneytransferservice.model.TransferTransaction;
-import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.service.BatchTransferService;
+import com.tenx.moneytransferservice.service.ExecutionMode;
 import com.tenx.moneytransferservice.service.TransferTransactionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,13 +22,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -32,13 +44,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest
 @AutoConfigureMockMvc
 class TransferTransactionControllerTest {
-    @MockBean
-    private AccountService accountService;
     @MockBean
     private TransferTransactionService transactionService;
+    @MockBean
+    private BatchTransferService batchTransferService;
 
     @Autowired
     private MockMvc mockMvc;
+    @Autowired
+    private TransferTransactionController transferTransactionController;
 
     @Autowired
     private ObjectMapper objectMapper;
@@ -52,11 +66,11 @@ class TransferTransactionControllerTest {
     @DisplayName("Transfer Money Success")
     void testSuccessfulTransferMoney() throws Exception {
         Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
-                balance(new BigDecimal(2000)).
+                balance(Money.parse("2000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
-                balance(new BigDecimal(1000)).
+                balance(Money.parse("1000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         TransferTransaction transferTransaction = TransferTransaction.builder()
@@ -67,12 +81,9 @@ class TransferTransactionControllerTest {
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
-                .amount(new BigDecimal(500)).build();
-
-        doReturn(sourceAccount).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doReturn(targetAccount).when(accountService).findAccount(TARGET_ACCOUNT_ID);
+                .amount(Money.parse("500")).build();
 
-        doReturn(transferTransaction).when(transactionService).transferMoney(sourceAccount,targetAccount,transferTransactionDTO.getAmount());
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferTransactionDTO.getAmount(),null);
 
 
 
@@ -86,19 +97,13 @@ class TransferTransactionControllerTest {
     @Test
     @DisplayName("Source account does not exist")
     void testTransferFromNonExistedSourceAcccount() throws Exception {
-
-        Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
-                balance(new BigDecimal(1000)).
-                currency(Currency.USD).
-                createdAt(LocalDateTime.now()).build();
-
-        doThrow(new AccountNotFoundException("Account does not exist : " + SOURCE_ACCOUNT_ID)).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doReturn(targetAccount).when(accountService).findAccount(TARGET_ACCOUNT_ID);
+        doThrow(new AccountNotFoundException(SOURCE_ACCOUNT_ID))
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,Money.parse("500"),null);
 
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
-                .amount(new BigDecimal(500)).build();
+                .amount(Money.parse("500")).build();
 
         mockMvc.perform(post("/v1/transfers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -112,19 +117,13 @@ class TransferTransactionControllerTest {
     @Test
     @DisplayName("Target account does not exist")
     void testTransferToNonExistedTargetAcccount() throws Exception {
-
-        Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
-                balance(new BigDecimal(1500)).
-                currency(Currency.GBP).
-                createdAt(LocalDateTime.now()).build();
-
-        doReturn(sourceAccount).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doThrow(new AccountNotFoundException("Account does not exist : " + TARGET_ACCOUNT_ID)).when(accountService).findAccount(TARGET_ACCOUNT_ID);
+        doThrow(new AccountNotFoundException(TARGET_ACCOUNT_ID))
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,Money.parse("500"),null);
 
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
-                .amount(new BigDecimal(500)).build();
+                .amount(Money.parse("500")).build();
 
         mockMvc.perform(post("/v1/transfers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -138,22 +137,13 @@ class TransferTransactionControllerTest {
     @Test
     @DisplayName("Source and Target Currencies are different")
     void testTransferBeetweenDifferentCurrencyAccounts() throws Exception {
-        Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
-                balance(new BigDecimal(1500)).
-                currency(Currency.GBP).
-                createdAt(LocalDateTime.now()).build();
-        Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
-                balance(new BigDecimal(1000)).
-                currency(Currency.USD).
-                createdAt(LocalDateTime.now()).build();
-
-        doReturn(sourceAccount).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doReturn(targetAccount).when(accountService).findAccount(TARGET_ACCOUNT_ID);
+        doThrow(new CurrencyMismatchException(Currency.GBP, Currency.USD))
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,Money.parse("500"),null);
 
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
-                .amount(new BigDecimal(500)).build();
+                .amount(Money.parse("500")).build();
 
         mockMvc.perform(post("/v1/transfers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -166,21 +156,13 @@ class TransferTransactionControllerTest {
     @Test
     @DisplayName("Source account has insufficent balance for transfer")
     void testSourceAccountInsufficentBalance() throws Exception {
-        Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
-                balance(new BigDecimal(300)).
-                currency(Currency.GBP).
-                createdAt(LocalDateTime.now()).build();
-        Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
-                balance(new BigDecimal(1000)).
-                currency(Currency.GBP).
-                createdAt(LocalDateTime.now()).build();
-        doReturn(sourceAccount).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doReturn(targetAccount).when(accountService).findAccount(TARGET_ACCOUNT_ID);
+        doThrow(new InsufficientBalanceException(SOURCE_ACCOUNT_ID))
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,Money.parse("500"),null);
 
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
-                .amount(new BigDecimal(500)).build();
+                .amount(Money.parse("500")).build();
 
         mockMvc.perform(post("/v1/transfers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -193,23 +175,21 @@ class TransferTransactionControllerTest {
     @Test
     @DisplayName("Transfer money for a modified account")
     void testConcurrentTransfer() throws Exception {
-        BigDecimal transferAmount = new BigDecimal("500");
+        long transferAmount = Money.parse("500");
         Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
-                balance(new BigDecimal(2000)).
+                balance(Money.parse("2000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
-                balance(new BigDecimal(1000)).
+                balance(Money.parse("1000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
-        doReturn(sourceAccount).when(accountService).findAccount(SOURCE_ACCOUNT_ID);
-        doReturn(targetAccount).when(accountService).findAccount(TARGET_ACCOUNT_ID);
         TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
                 .targetAccountId(TARGET_ACCOUNT_ID)
                 .sourceAccountId(SOURCE_ACCOUNT_ID)
                 .amount(transferAmount).build();
 
-        doThrow(ObjectOptimisticLockingFailureException.class).when(transactionService).transferMoney(sourceAccount,targetAccount,transferAmount);
+        doThrow(ObjectOptimisticLockingFailureException.class).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,null);
 
         mockMvc.perform(post("/v1/transfers")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -219,4 +199,232 @@ class TransferTransactionControllerTest {
                 .andExpect(jsonPath("$.message").isNotEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Transfer money retried after an optimistic lock conflict")
+    void testConcurrentTransferRetried() throws Exception {
+        long transferAmount = Money.parse("500");
+        Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
+                balance(Money.parse("2000")).
+                currency(Currency.GBP).
+                createdAt(LocalDateTime.now()).build();
+        Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
+                balance(Money.parse("1000")).
+                currency(Currency.GBP).
+                createdAt(LocalDateTime.now()).build();
+        TransferTransaction transferTransaction = TransferTransaction.builder()
+                .sourceAccount(sourceAccount)
+                .targetAccount(targetAccount)
+                .id(SUCCESSFUL_TRANSACTION_ID).build();
+        TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+                .targetAccountId(TARGET_ACCOUNT_ID)
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .amount(transferAmount).build();
+
+        doThrow(ObjectOptimisticLockingFailureException.class)
+                .doReturn(transferTransaction)
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,null);
+
+        mockMvc.perform(post("/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferTransactionDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/v1/transfers/"+transferTransaction.getId()));
+    }
+
+    @Test
+    @DisplayName("Batch transfer returns a result per transfer")
+    void testBatchTransfer() throws Exception {
+        List<TransferTransactionDTO> transfers = Arrays.asList(
+                TransferTransactionDTO.builder()
+                        .sourceAccountId(SOURCE_ACCOUNT_ID)
+                        .targetAccountId(TARGET_ACCOUNT_ID)
+                        .amount(Money.parse("500")).build(),
+                TransferTransactionDTO.builder()
+                        .sourceAccountId(SOURCE_ACCOUNT_ID)
+                        .targetAccountId(TARGET_ACCOUNT_ID)
+                        .amount(Money.parse("5000")).build());
+        List<TransferResultDTO> results = Arrays.asList(
+                TransferResultDTO.builder().status(TransferResultDTO.Status.COMPLETED).transferId(SUCCESSFUL_TRANSACTION_ID).build(),
+                TransferResultDTO.builder().status(TransferResultDTO.Status.REJECTED).message("Insufficent Balance For : " + SOURCE_ACCOUNT_ID).build());
+        doReturn(results).when(batchTransferService).transferBatch(transfers);
+
+        mockMvc.perform(post("/v1/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transfers)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("COMPLETED"))
+                .andExpect(jsonPath("$[0].transferId").value(SUCCESSFUL_TRANSACTION_ID))
+                .andExpect(jsonPath("$[1].status").value("REJECTED"))
+                .andExpect(jsonPath("$[1].message").isNotEmpty());
+    }
+
+    @Test
+    @DisplayName("Repeated idempotency key returns the first transfer without transferring again")
+    void testIdempotentTransferMoney() throws Exception {
+        String idempotencyKey = "payroll-2026-10-18-0001";
+        long transferAmount = Money.parse("500");
+        Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
+                balance(Money.parse("2000")).
+                currency(Currency.GBP).
+                createdAt(LocalDateTime.now()).build();
+        Account targetAccount = Account.builder().id(TARGET_ACCOUNT_ID).
+                balance(Money.parse("1000")).
+                currency(Currency.GBP).
+                createdAt(LocalDateTime.now()).build();
+        TransferTransaction transferTransaction = TransferTransaction.builder()
+                .sourceAccount(sourceAccount)
+                .targetAccount(targetAccount)
+                .idempotencyKey(idempotencyKey)
+                .id(SUCCESSFUL_TRANSACTION_ID).build();
+        TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+                .targetAccountId(TARGET_ACCOUNT_ID)
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .amount(transferAmount).build();
+
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,idempotencyKey);
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/v1/transfers")
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(transferTransactionDTO)))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "/v1/transfers/"+transferTransaction.getId()));
+        }
+        verify(transactionService, times(1)).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,idempotencyKey);
+    }
+
+    @Test
+    @DisplayName("Transfer money on the async executor")
+    void testAsyncTransferMoney() throws Exception {
+        long transferAmount = Money.parse("500");
+        TransferTransaction transferTransaction = TransferTransaction.builder()
+                .id(SUCCESSFUL_TRANSACTION_ID).build();
+        TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+                .targetAccountId(TARGET_ACCOUNT_ID)
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .amount(transferAmount).build();
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,null);
+
+        ReflectionTestUtils.setField(transferTransactionController, "executionMode", ExecutionMode.ASYNC);
+        try {
+            MvcResult result = mockMvc.perform(post("/v1/transfers")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(transferTransactionDTO)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string(HttpHeaders.LOCATION, "/v1/transfers/"+transferTransaction.getId()));
+        } finally {
+            ReflectionTestUtils.setField(transferTransactionController, "executionMode", ExecutionMode.SYNC);
+        }
+    }
+
+    @Test
+    @DisplayName("Async transfer failures go through the exception handlers")
+    void testAsyncTransferRejected() throws Exception {
+        long transferAmount = Money.parse("500");
+        TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+                .targetAccountId(TARGET_ACCOUNT_ID)
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .amount(transferAmount).build();
+        doThrow(new InsufficientBalanceException(SOURCE_ACCOUNT_ID))
+                .when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,transferAmount,null);
+
+        ReflectionTestUtils.setField(transferTransactionController, "executionMode", ExecutionMode.ASYNC);
+        try {
+            MvcResult result = mockMvc.perform(post("/v1/transfers")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(transferTransactionDTO)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message").value("Insufficent Balance For : " + SOURCE_ACCOUNT_ID));
+        } finally {
+            ReflectionTestUtils.setField(transferTransactionController, "executionMode", ExecutionMode.SYNC);
+        }
+    }
+
+    @Test
+    @DisplayName("Decimal amounts are read as minor units")
+    void testDecimalAmount() throws Exception {
+        TransferTransaction transferTransaction = TransferTransaction.builder().id(SUCCESSFUL_TRANSACTION_ID).build();
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,10025L,null);
+
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceAccountId\":1,\"targetAccountId\":2,\"amount\":\"100.25\"}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceAccountId\":1,\"targetAccountId\":2,\"amount\":100.255}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Transfers sent as binary frames are read like JSON ones")
+    void testTransferFrame() throws Exception {
+        TransferTransactionDTO transferTransactionDTO = TransferTransactionDTO.builder()
+                .sourceAccountId(SOURCE_ACCOUNT_ID)
+                .targetAccountId(TARGET_ACCOUNT_ID)
+                .amount(Money.parse("100.25")).build();
+        TransferTransaction transferTransaction = TransferTransaction.builder().id(SUCCESSFUL_TRANSACTION_ID).build();
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,10025L,null);
+        List<TransferResultDTO> results = Arrays.asList(
+                TransferResultDTO.builder().status(TransferResultDTO.Status.COMPLETED).transferId(SUCCESSFUL_TRANSACTION_ID).build(),
+                TransferResultDTO.builder().status(TransferResultDTO.Status.COMPLETED).transferId(SUCCESSFUL_TRANSACTION_ID + 1).build());
+        doReturn(results).when(batchTransferService).transferBatch(Arrays.asList(transferTransactionDTO, transferTransactionDTO));
+
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(TransferFrame.MEDIA_TYPE)
+                        .content(frames(transferTransactionDTO, 1)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "/v1/transfers/"+SUCCESSFUL_TRANSACTION_ID));
+        mockMvc.perform(post("/v1/transfers/batch")
+                        .contentType(TransferFrame.MEDIA_TYPE)
+                        .content(frames(transferTransactionDTO, 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].transferId").value(SUCCESSFUL_TRANSACTION_ID + 1));
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(TransferFrame.MEDIA_TYPE)
+                        .content(frames(transferTransactionDTO, 2)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("Streaming deserializer takes ids as numbers or strings, skips unknown properties and rejects bad values")
+    void testTransferRequestParsing() throws Exception {
+        TransferTransaction transferTransaction = TransferTransaction.builder().id(SUCCESSFUL_TRANSACTION_ID).build();
+        doReturn(transferTransaction).when(transactionService).transfer(SOURCE_ACCOUNT_ID,TARGET_ACCOUNT_ID,10000L,null);
+
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reference\":{\"id\":[1,2]},\"sourceAccountId\":\"1\",\"targetAccountId\":2,\"amount\":100}"))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceAccountId\":\"one\",\"targetAccountId\":2,\"amount\":\"100\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Request body is not readable"));
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceAccountId\":1,\"targetAccountId\":2,\"amount\":null}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/v1/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sourceAccountId\":1,\"targetAccountId\":2}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Request body is not readable"));
+        verify(transactionService, never()).transfer(SOURCE_ACCOUNT_ID, TARGET_ACCOUNT_ID, 0L, null);
+    }
+
+    private byte[] frames(TransferTransactionDTO transferTransactionDTO, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * TransferFrame.FRAME_SIZE);
+        for (int i = 0; i < count; i++) {
+            TransferFrame.encode(buffer, transferTransactionDTO);
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,113 @@
+package com.tenx.moneytransferservice.eventsourced;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountBalanceSnapshot;
+import com.tenx.moneytransferservice.model.AccountEvent;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceSnapshotRepository;
+import com.tenx.moneytransferservice.repository.AccountEventRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import com.tenx.moneytransferservice.service.AccountService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "eventsourced.snapshot.interval-ms=3600000")
+@ActiveProfiles({"test", "eventsourced"})
+class EventSourcedTransferTransactionServiceTest {
+
+    @Autowired
+    private EventSourcedTransferTransactionService eventSourcedTransferTransactionService;
+    @Autowired
+    private AccountBalanceProjection accountBalanceProjection;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountEventRepository accountEventRepository;
+    @Autowired
+    private AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        accountBalanceProjection.snapshot();
+        accountEventRepository.deleteAll();
+        accountBalanceSnapshotRepository.deleteAll();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Transfer appends a debit and a credit event and changes the projected balances only")
+    void testTransfer() {
+        eventSourcedTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("300"));
+
+        Assertions.assertEquals(Money.parse("700"), accountService.findBalance(sourceAccount.getId()));
+        Assertions.assertEquals(Money.parse("2300"), accountService.findBalance(targetAccount.getId()));
+        Assertions.assertEquals(Money.parse("1000"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        List<Long> amounts = accountEventRepository.findAll().stream().map(AccountEvent::getAmount).collect(Collectors.toList());
+        Assertions.assertEquals(List.of(Money.parse("-300"), Money.parse("300")), amounts);
+    }
+
+    @Test
+    @DisplayName("Transfer exceeding the projected balance is rejected without events")
+    void testInsufficientBalance() {
+        eventSourcedTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("600"));
+
+        assertThrows(InsufficientBalanceException.class,
+                () -> eventSourcedTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("600")));
+        Assertions.assertEquals(Money.parse("400"), accountBalanceProjection.balance(sourceAccount.getId()));
+        Assertions.assertEquals(2, accountEventRepository.count());
+        Assertions.assertEquals(1, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Replay rebuilds balances from the snapshot and only the events after it")
+    void testSnapshotAndReplay() throws Exception {
+        eventSourcedTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("300"));
+        accountBalanceProjection.snapshot();
+        AccountBalanceSnapshot snapshot = accountBalanceSnapshotRepository.findById(sourceAccount.getId()).get();
+        Assertions.assertEquals(Money.parse("700"), snapshot.getBalance());
+
+        eventSourcedTransferTransactionService.transfer(targetAccount.getId(), sourceAccount.getId(), Money.parse("50"));
+        // events covered by a snapshot are not read again
+        accountEventRepository.deleteAll(accountEventRepository.findAll().stream()
+                                                               .filter(event -> event.getId() <= snapshot.getLastEventId())
+                                                               .collect(Collectors.toList()));
+        accountBalanceProjection.replay();
+
+        Assertions.assertEquals(Money.parse("750"), accountBalanceProjection.balance(sourceAccount.getId()));
+        Assertions.assertEquals(Money.parse("2250"), accountBalanceProjection.balance(targetAccount.getId()));
+    }
+}
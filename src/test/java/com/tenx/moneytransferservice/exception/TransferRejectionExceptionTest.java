@@ -0,0 +1,32 @@
+package com.tenx.moneytransferservice.exception;
+
+import com.tenx.moneytransferservice.model.Currency;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TransferRejectionExceptionTest {
+
+    private static final Long ACCOUNT_ID = 1L;
+
+    @Test
+    @DisplayName("Expected rejections carry no stack trace and build their message on demand")
+    void testStacklessRejections() {
+        InsufficientBalanceException insufficientBalance = new InsufficientBalanceException(ACCOUNT_ID);
+        Assertions.assertEquals(0, insufficientBalance.getStackTrace().length);
+        Assertions.assertEquals("Insufficent Balance For : 1", insufficientBalance.getMessage());
+
+        AccountNotFoundException accountNotFound = new AccountNotFoundException(ACCOUNT_ID);
+        Assertions.assertEquals(0, accountNotFound.getStackTrace().length);
+        Assertions.assertEquals("Account does not exist : 1", accountNotFound.getMessage());
+
+        TransferBetweenSameAccountException sameAccount = new TransferBetweenSameAccountException(ACCOUNT_ID);
+        Assertions.assertEquals(0, sameAccount.getStackTrace().length);
+        Assertions.assertEquals("Transfer between same account is not possible : 1", sameAccount.getMessage());
+
+        CurrencyMismatchException currencyMismatch = new CurrencyMismatchException(Currency.GBP, Currency.USD);
+        Assertions.assertEquals(0, currencyMismatch.getStackTrace().length);
+        Assertions.assertEquals("Source and Target account has currency mismatch. Source Currency : GBP Target Currency : USD",
+                currencyMismatch.getMessage());
+    }
+}
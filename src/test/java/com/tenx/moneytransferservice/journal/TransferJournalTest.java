@@ -0,0 +1,191 @@
+package com.tenx.moneytransferservice.journal;
+
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class TransferJournalTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 10, 18, 12, 30, 15, 123_000_000);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Appended transfers are replayed in order after reopening, and ids continue from the last one")
+    void testAppendAndReplay() throws IOException {
+        try (TransferJournal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            Assertions.assertTrue(journal.isEmpty());
+            Assertions.assertEquals(1L, journal.append(transfer(101L, 102L, "100.25", "key-1")));
+            Assertions.assertEquals(2L, journal.append(transfer(102L, 101L, "3", null)));
+        }
+
+        try (TransferJournal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            List<TransferJournalRecord> records = replay(journal);
+            Assertions.assertEquals(List.of(new TransferJournalRecord(1L, 101L, 102L, Money.parse("100.25"), CREATED_AT, "key-1"),
+                                            new TransferJournalRecord(2L, 102L, 101L, Money.parse("3"), CREATED_AT, null)), records);
+            Assertions.assertEquals(3L, journal.append(transfer(101L, 102L, "1", null)));
+        }
+    }
+
+    @Test
+    @DisplayName("Full segments roll over to new segment files and are replayed together")
+    void testSegmentRolling() throws IOException {
+        try (TransferJournal journal = open(FsyncPolicy.NONE)) {
+            for (int i = 0; i < 500; i++) {
+                journal.append(transfer(101L, 102L, "1", "key-" + i));
+            }
+        }
+
+        try (TransferJournal journal = open(FsyncPolicy.NONE)) {
+            Assertions.assertTrue(JournalSegment.list(directory).size() > 1);
+            List<TransferJournalRecord> records = replay(journal);
+            Assertions.assertEquals(500, records.size());
+            for (int i = 0; i < records.size(); i++) {
+                Assertions.assertEquals(i + 1, records.get(i).getTransferId());
+                Assertions.assertEquals("key-" + i, records.get(i).getIdempotencyKey());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("A torn record at the tail is truncated on open and its id is reused")
+    void testTornTail() throws IOException {
+        try (TransferJournal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            journal.append(transfer(101L, 102L, "10", null));
+            journal.append(transfer(101L, 102L, "20", null));
+            journal.append(transfer(101L, 102L, "30", null));
+        }
+        Path segment = JournalSegment.list(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // the last byte of the third record's payload
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            long position = JournalSegment.HEADER_SIZE;
+            for (int i = 0; i < 3; i++) {
+                header.clear();
+                channel.read(header, position);
+                position += JournalSegment.RECORD_HEADER_SIZE + header.getInt(0);
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0x7F}), position - 1);
+        }
+
+        try (TransferJournal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            Assertions.assertEquals(2, replay(journal).size());
+            Assertions.assertEquals(3L, journal.append(transfer(101L, 102L, "40", null)));
+        }
+        try (TransferJournal journal = open(FsyncPolicy.EVERY_WRITE)) {
+            List<TransferJournalRecord> records = replay(journal);
+            Assertions.assertEquals(3, records.size());
+            Assertions.assertEquals(Money.parse("40"), records.get(2).getAmount());
+        }
+    }
+
+    @Test
+    @DisplayName("Concurrent appends share group fsyncs and every transfer gets its own id")
+    void testGroupFsync() throws Exception {
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        try (TransferJournal journal = open(FsyncPolicy.GROUP)) {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            try {
+                List<Future<?>> appends = new ArrayList<>();
+                for (int thread = 0; thread < 4; thread++) {
+                    appends.add(executor.submit(() -> {
+                        for (int i = 0; i < 250; i++) {
+                            long transferId = journal.append(transfer(101L, 102L, "1", null));
+                            journal.awaitDurable(transferId);
+                            ids.add(transferId);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> append : appends) {
+                    append.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+        }
+        Assertions.assertEquals(1000, ids.size());
+        try (TransferJournal journal = open(FsyncPolicy.GROUP)) {
+            Assertions.assertEquals(1000, replay(journal).size());
+        }
+    }
+
+    @Test
+    @DisplayName("Reset drops every record but keeps the id sequence")
+    void testReset() throws IOException {
+        try (TransferJournal journal = open(FsyncPolicy.INTERVAL)) {
+            for (int i = 0; i < 100; i++) {
+                journal.append(transfer(101L, 102L, "1", null));
+            }
+            journal.reset();
+            Assertions.assertTrue(journal.isEmpty());
+            Assertions.assertEquals(1, JournalSegment.list(directory).size());
+        }
+
+        try (TransferJournal journal = open(FsyncPolicy.INTERVAL)) {
+            Assertions.assertTrue(journal.isEmpty());
+            Assertions.assertTrue(replay(journal).isEmpty());
+            Assertions.assertEquals(101L, journal.append(transfer(101L, 102L, "1", null)));
+        }
+    }
+
+    @Test
+    @DisplayName("An empty journal skips its ids past a given id, also after reopening")
+    void testSkipTo() throws IOException {
+        try (TransferJournal journal = open(FsyncPolicy.GROUP)) {
+            journal.append(transfer(101L, 102L, "1", null));
+            Assertions.assertThrows(IllegalStateException.class, () -> journal.skipTo(500L));
+            journal.reset();
+            journal.skipTo(500L);
+            Assertions.assertTrue(journal.isEmpty());
+            Assertions.assertEquals(1, JournalSegment.list(directory).size());
+        }
+
+        try (TransferJournal journal = open(FsyncPolicy.GROUP)) {
+            Assertions.assertEquals(500L, journal.lastTransferId());
+            long transferId = journal.append(transfer(101L, 102L, "1", null));
+            journal.awaitDurable(transferId);
+            Assertions.assertEquals(501L, transferId);
+        }
+    }
+
+    private TransferJournal open(FsyncPolicy fsyncPolicy) throws IOException {
+        return TransferJournal.open(directory, SEGMENT_SIZE, fsyncPolicy, Duration.ofMillis(5));
+    }
+
+    private static List<TransferJournalRecord> replay(TransferJournal journal) throws IOException {
+        List<TransferJournalRecord> records = new ArrayList<>();
+        journal.replay(records::add);
+        return records;
+    }
+
+    private static TransferTransaction transfer(Long sourceAccountId, Long targetAccountId, String amount, String idempotencyKey) {
+        return TransferTransaction.builder().sourceAccount(Account.builder().id(sourceAccountId).build())
+                                            .targetAccount(Account.builder().id(targetAccountId).build())
+                                            .amount(Money.parse(amount))
+                                            .createdAt(CREATED_AT)
+                                            .idempotencyKey(idempotencyKey)
+                                            .build();
+    }
+}
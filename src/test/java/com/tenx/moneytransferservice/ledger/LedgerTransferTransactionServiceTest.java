@@ -0,0 +1,166 @@
+package com.tenx.moneytransferservice.ledger;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.journal.FsyncPolicy;
+import com.tenx.moneytransferservice.metrics.TransferMetrics;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.outbox.TransferOutbox;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.LedgerCheckpointRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import com.tenx.moneytransferservice.service.AccountCreditNetting;
+import com.tenx.moneytransferservice.service.AccountService;
+import com.tenx.moneytransferservice.service.TransferGroupCommitter;
+import com.tenx.moneytransferservice.service.TransferValidator;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "ledger.journal.directory=target/test-ledger")
+@ActiveProfiles({"test", "ledger"})
+class LedgerTransferTransactionServiceTest {
+
+    @Autowired
+    private LedgerTransferTransactionService ledgerTransferTransactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private LedgerCheckpointRepository ledgerCheckpointRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferValidator transferValidator;
+    @Autowired
+    private TransferMetrics transferMetrics;
+    @Autowired
+    private AccountCreditNetting accountCreditNetting;
+    @Autowired
+    private ApplicationContext applicationContext;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private TransferOutbox transferOutbox;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @Test
+    @DisplayName("Group commit and credit netting are off in ledger mode")
+    void testAccountRowWritersDisabled() {
+        Assertions.assertNull(applicationContext.getBeanProvider(TransferGroupCommitter.class).getIfAvailable());
+        Assertions.assertFalse(accountCreditNetting.credit(targetAccount.getId(), Money.parse("100")));
+    }
+
+    @Test
+    @DisplayName("Transfer is applied in memory and written to accounts on snapshot")
+    void testTransferMoneyAndSnapshot() throws Exception {
+        long transferAmount = Money.parse("300");
+
+        TransferTransaction transferTransaction = ledgerTransferTransactionService.transferMoney(sourceAccount, targetAccount, transferAmount);
+        ledgerTransferTransactionService.snapshot();
+
+        Assertions.assertNotNull(transferTransaction.getId());
+        Assertions.assertEquals(Money.parse("700"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2300"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+    }
+
+    @Test
+    @DisplayName("Journaled transfers are stored as transfer rows under their journal ids on snapshot")
+    void testSnapshotStoresTransfers() throws Exception {
+        TransferTransaction first = ledgerTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "ledger-key-1");
+        TransferTransaction repeated = ledgerTransferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("200"), "ledger-key-1");
+        Assertions.assertFalse(transferTransactionRepository.existsById(first.getId()));
+
+        ledgerTransferTransactionService.snapshot();
+
+        TransferTransaction stored = transferTransactionRepository.findById(first.getId()).get();
+        Assertions.assertEquals(Money.parse("100"), stored.getAmount());
+        Assertions.assertEquals(first.getId(), transferTransactionRepository.findIdByIdempotencyKey("ledger-key-1").get());
+        Assertions.assertNull(transferTransactionRepository.findById(repeated.getId()).get().getIdempotencyKey());
+        Assertions.assertEquals(Money.parse("700"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+    }
+
+    @Test
+    @DisplayName("Ledger rejects transfer exceeding in-memory balance")
+    void testInsufficientBalance() {
+        ledgerTransferTransactionService.transferMoney(sourceAccount, targetAccount, Money.parse("800"));
+
+        assertThrows(
+                InsufficientBalanceException.class,
+                () -> ledgerTransferTransactionService.transferMoney(sourceAccount, targetAccount, Money.parse("300"))
+        );
+    }
+
+    @Test
+    @DisplayName("Journal left behind by a crash after the snapshot committed is not replayed twice")
+    void testCrashBeforeJournalReset(@TempDir Path journalCopy) throws Exception {
+        ledgerTransferTransactionService.transferMoney(sourceAccount, targetAccount, Money.parse("300"));
+        // the journal as it is on disk when the process dies between the snapshot commit and the journal reset
+        try (Stream<Path> segments = Files.list(Paths.get("target/test-ledger"))) {
+            for (Path segment : (Iterable<Path>) segments::iterator) {
+                Files.copy(segment, journalCopy.resolve(segment.getFileName()));
+            }
+        }
+        ledgerTransferTransactionService.snapshot();
+
+        LedgerTransferTransactionService restarted = new LedgerTransferTransactionService();
+        restarted.accountRepository = accountRepository;
+        restarted.ledgerCheckpointRepository = ledgerCheckpointRepository;
+        restarted.transactionTemplate = transactionTemplate;
+        restarted.accountService = accountService;
+        restarted.transferValidator = transferValidator;
+        restarted.transferMetrics = transferMetrics;
+        restarted.transferTransactionRepository = transferTransactionRepository;
+        restarted.transferOutbox = transferOutbox;
+        restarted.entityManager = entityManager;
+        restarted.shardCount = 2;
+        restarted.journalDirectory = journalCopy.toString();
+        restarted.segmentSize = DataSize.ofMegabytes(64);
+        restarted.fsyncPolicy = FsyncPolicy.NONE;
+        restarted.fsyncInterval = Duration.ofMillis(10);
+        restarted.start();
+        restarted.stop();
+
+        Assertions.assertEquals(Money.parse("700"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2300"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(1, transferTransactionRepository.findOutgoingSince(sourceAccount.getId(), LocalDateTime.now().minusDays(1)).size());
+    }
+}
@@ -0,0 +1,49 @@
+package com.tenx.moneytransferservice.metrics;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class TransferMetricsTest {
+    @Autowired
+    private TransferMetrics transferMetrics;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Transfers sharing an account are counted as contended while in flight")
+    void testContentionGauge() {
+        transferMetrics.trackInFlight(1L, 2L, () -> transferMetrics.trackInFlight(2L, 3L, () -> {
+            Assertions.assertEquals(2, meterRegistry.get("transfer.inflight").gauge().value());
+            Assertions.assertEquals(1, meterRegistry.get("transfer.contention").gauge().value());
+            return null;
+        }));
+        Assertions.assertEquals(0, meterRegistry.get("transfer.inflight").gauge().value());
+        Assertions.assertEquals(0, meterRegistry.get("transfer.contention").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Failed account operations are timed with an error outcome")
+    void testTimerOutcome() {
+        assertThrows(
+                InsufficientBalanceException.class,
+                () -> transferMetrics.timeAccount("metricsTest", () -> {
+                    throw new InsufficientBalanceException(1L);
+                })
+        );
+        transferMetrics.timeAccount("metricsTest", () -> null);
+
+        Assertions.assertEquals(1, meterRegistry.get("account.duration").tags("operation", "metricsTest", "outcome", TransferMetrics.ERROR).timer().count());
+        Assertions.assertEquals(1, meterRegistry.get("account.duration").tags("operation", "metricsTest", "outcome", TransferMetrics.SUCCESS).timer().count());
+    }
+}
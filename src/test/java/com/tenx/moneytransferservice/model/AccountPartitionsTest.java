@@ -0,0 +1,68 @@
+package com.tenx.moneytransferservice.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+class AccountPartitionsTest {
+
+    private static final int ACCOUNTS = 4096;
+
+    @Test
+    @DisplayName("Snowflake ids drawn one per millisecond spread over stripes and shards")
+    void testSnowflakeIdsSpread() {
+        long[] ids = snowflakeIds();
+        for (long id : ids) {
+            // what a plain modulo would have partitioned on
+            Assertions.assertEquals(0, id % 1024);
+        }
+
+        int[] shards = new int[8];
+        Set<Integer> stripes = new HashSet<>();
+        for (long id : ids) {
+            shards[AccountPartitions.of(id, shards.length)]++;
+            stripes.add(AccountPartitions.of(id, 1024));
+        }
+        for (int shard : shards) {
+            Assertions.assertTrue(shard > ACCOUNTS / shards.length / 2, "shard holds " + shard + " of " + ACCOUNTS);
+        }
+        Assertions.assertTrue(stripes.size() > 1024 / 2, stripes.size() + " stripes used");
+    }
+
+    @Test
+    @DisplayName("The id fold of the replay queries spreads snowflake and sequence ids over every shard")
+    void testReplayFoldSpread() {
+        long[] ids = snowflakeIds();
+        int[] snowflakeShards = new int[8];
+        int[] sequenceShards = new int[8];
+        for (int i = 0; i < ids.length; i++) {
+            snowflakeShards[fold(ids[i], snowflakeShards.length)]++;
+            sequenceShards[fold(1000 + i, sequenceShards.length)]++;
+        }
+        for (int shard = 0; shard < 8; shard++) {
+            Assertions.assertTrue(snowflakeShards[shard] > ACCOUNTS / 8 / 2);
+            Assertions.assertEquals(ACCOUNTS / 8, sequenceShards[shard]);
+        }
+    }
+
+    private static long[] snowflakeIds() {
+        AtomicLong clock = new AtomicLong(SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000L);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, clock::incrementAndGet);
+        long[] ids = new long[ACCOUNTS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = generator.nextId();
+        }
+        return ids;
+    }
+
+    /**
+     * the shard expression of AccountRepository.findByShard
+     */
+    private static int fold(long id, int shards) {
+        return (int) ((id % shards + (id / 4096) % shards + (id / 4194304) % shards) % shards);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tenx.moneytransferservice.model;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+class CurrencyTest {
+
+    @Test
+    @DisplayName("Every currency fits the stored minor unit")
+    void testScaleFitsStoredScale() {
+        for (Currency currency : Currency.values()) {
+            Assertions.assertTrue(currency.getScale() <= Money.SCALE, currency.name());
+            // the smallest amount of the currency is a whole count of stored units
+            Assertions.assertDoesNotThrow(() -> Money.of(BigDecimal.ONE.movePointLeft(currency.getScale())), currency.name());
+        }
+        Assertions.assertEquals(2, Money.SCALE);
+    }
+}
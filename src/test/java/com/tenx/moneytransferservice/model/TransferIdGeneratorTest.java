@@ -0,0 +1,113 @@
+package com.tenx.moneytransferservice.model;
+
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"id.generator.strategy=snowflake", "id.generator.node=7"})
+class TransferIdGeneratorTest {
+
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Snowflake ids of accounts and transfers carry the node and the time they were drawn, in order")
+    void testSnowflakeIds() {
+        List<TransferTransaction> transfers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transfers.add(TransferTransaction.builder().sourceAccount(sourceAccount)
+                                                       .targetAccount(targetAccount)
+                                                       .amount(Money.parse("10"))
+                                                       .createdAt(LocalDateTime.now())
+                                                       .build());
+        }
+        List<TransferTransaction> saved = transferTransactionRepository.saveAll(transfers);
+
+        Assertions.assertEquals(7, node(sourceAccount.getId()));
+        Assertions.assertTrue(sourceAccount.getId() < targetAccount.getId());
+        Assertions.assertTrue(saved.get(0).getId() < saved.get(1).getId() && saved.get(1).getId() < saved.get(2).getId());
+        Duration age = Duration.between(SnowflakeIdGenerator.timestamp(saved.get(2).getId()), Instant.now());
+        Assertions.assertTrue(!age.isNegative() && age.getSeconds() < 60, "id drawn " + age + " ago");
+        Assertions.assertEquals(3, transferTransactionRepository.findAllById(List.of(saved.get(0).getId(), saved.get(1).getId(), saved.get(2).getId())).size());
+    }
+
+    @Test
+    @DisplayName("Snowflake ids keep growing when the counter runs out or the clock goes back, and never repeat across threads")
+    void testSnowflakeOrdering() throws Exception {
+        AtomicLong clock = new AtomicLong(Instant.parse("2026-01-01T00:00:00Z").toEpochMilli());
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+        long previous = generator.nextId();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5_000) {
+                clock.addAndGet(-1_000);
+            }
+            long id = generator.nextId();
+            Assertions.assertTrue(id > previous);
+            Assertions.assertEquals(1, node(id));
+            previous = id;
+        }
+
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> draws = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                draws.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        ids.add(generator.nextId());
+                    }
+                }));
+            }
+            for (Future<?> draw : draws) {
+                draw.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(40_000, ids.size());
+    }
+
+    private static long node(long id) {
+        return (id >>> SnowflakeIdGenerator.COUNTER_BITS) & SnowflakeIdGenerator.MAX_NODE;
+    }
+}
@@ -0,0 +1,110 @@
+package com.tenx.moneytransferservice.outbox;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.TransferOutboxEvent;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferOutboxEventRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import com.tenx.moneytransferservice.service.TransferTransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"transfer.outbox.enabled=true", "transfer.outbox.poll-interval-ms=3600000", "transfer.outbox.batch-size=2"})
+class TransferOutboxRelayTest {
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private TransferOutboxRelay transferOutboxRelay;
+    @Autowired
+    private InMemoryTransferEventSink inMemoryTransferEventSink;
+    @Autowired
+    private TransferOutboxEventRepository transferOutboxEventRepository;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        inMemoryTransferEventSink.clear();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferOutboxEventRepository.deleteAll();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Outbox ids are drawn from the database when written, so they follow ids taken meanwhile by other instances")
+    void testIdsFollowOtherInstances() {
+        TransferTransaction first = transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"));
+        Long otherInstanceId = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR transfer_outbox_seq", Long.class);
+        TransferTransaction second = transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"));
+
+        List<TransferOutboxEvent> events = transferOutboxEventRepository.findAll();
+        Long firstId = events.stream().filter(event -> event.getTransferId().equals(first.getId())).findFirst().get().getId();
+        Long secondId = events.stream().filter(event -> event.getTransferId().equals(second.getId())).findFirst().get().getId();
+        Assertions.assertTrue(firstId < otherInstanceId);
+        Assertions.assertTrue(secondId > otherInstanceId);
+    }
+
+    @Test
+    @DisplayName("Completed transfers are written to the outbox with the transfer and relayed in order in batches")
+    void testRelay() {
+        List<Long> transferIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            TransferTransaction transfer = i % 2 == 0
+                    ? transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"))
+                    : transferTransactionService.transfer(targetAccount.getId(), sourceAccount.getId(), Money.parse("50"));
+            transferIds.add(transfer.getId());
+        }
+        assertThrows(InsufficientBalanceException.class,
+                () -> transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("5000")));
+        Assertions.assertEquals(5, transferOutboxEventRepository.count());
+        double published = meterRegistry.counter("transfer.outbox.published").count();
+
+        transferOutboxRelay.relay();
+
+        List<TransferOutboxEvent> events = inMemoryTransferEventSink.events();
+        Assertions.assertEquals(transferIds, events.stream().map(TransferOutboxEvent::getTransferId).collect(Collectors.toList()));
+        Assertions.assertEquals(Money.parse("50"), events.get(1).getAmount());
+        Assertions.assertEquals(targetAccount.getId(), events.get(1).getSourceAccountId());
+        Assertions.assertEquals(0, transferOutboxEventRepository.count());
+        Assertions.assertEquals(published + 5, meterRegistry.counter("transfer.outbox.published").count());
+        Assertions.assertEquals(3, meterRegistry.summary("transfer.outbox.batch").count());
+    }
+}
@@ -0,0 +1,153 @@
+package com.tenx.moneytransferservice.reactive;
+
+import com.tenx.moneytransferservice.cache.IdempotencyCache;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "reactive"})
+class ReactiveTransferStackTest {
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+    private Account targetUsdAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetUsdAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.USD)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        idempotencyCache.clear();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Reactive transfer updates both accounts with conditional updates")
+    void testTransfer() {
+        webTestClient.post().uri("/v1/transfers")
+                .bodyValue(transfer(sourceAccount, targetAccount, "100"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches(HttpHeaders.LOCATION, "/v1/transfers/[0-9]+");
+
+        Assertions.assertEquals(Money.parse("900"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2100"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(1, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reactive transfer rejections keep the servlet error contract")
+    void testRejections() {
+        webTestClient.post().uri("/v1/transfers")
+                .bodyValue(transfer(sourceAccount, targetAccount, "5000"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Insufficent Balance For : " + sourceAccount.getId());
+        webTestClient.post().uri("/v1/transfers")
+                .bodyValue(transfer(sourceAccount, targetUsdAccount, "100"))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.message").isEqualTo("Source and Target account has currency mismatch. Source Currency : GBP Target Currency : USD");
+        webTestClient.post().uri("/v1/transfers")
+                .bodyValue(TransferTransactionDTO.builder().sourceAccountId(700L).targetAccountId(targetAccount.getId()).amount(Money.parse("10")).build())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.message").isEqualTo("Account does not exist : 700");
+
+        Assertions.assertEquals(Money.parse("1000"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(0, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reactive transfer with a repeated idempotency key transfers once")
+    void testIdempotentTransfer() {
+        String firstLocation = webTestClient.post().uri("/v1/transfers")
+                .header("Idempotency-Key", "reactive-key-1")
+                .bodyValue(transfer(sourceAccount, targetAccount, "100"))
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(Void.class).getResponseHeaders().getLocation().toString();
+        idempotencyCache.clear();
+
+        webTestClient.post().uri("/v1/transfers")
+                .header("Idempotency-Key", "reactive-key-1")
+                .bodyValue(transfer(sourceAccount, targetAccount, "100"))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(HttpHeaders.LOCATION, firstLocation);
+
+        Assertions.assertEquals(Money.parse("900"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(1, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reactive transfers refuse netting and sharded accounts, whose balance is not on the account row")
+    void testAccountRowBalancesOnly() {
+        ReactiveTransferServiceImpl nettingService = new ReactiveTransferServiceImpl();
+        nettingService.nettingEnabled = true;
+        Assertions.assertThrows(IllegalStateException.class, nettingService::checkAccountRowBalances);
+
+        sourceAccount.setBalanceShards(2);
+        accountRepository.save(sourceAccount);
+        webTestClient.post().uri("/v1/transfers")
+                .bodyValue(transfer(sourceAccount, targetAccount, "100"))
+                .exchange()
+                .expectStatus().is5xxServerError();
+        Assertions.assertEquals(Money.parse("2000"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(0, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Reactive account creation")
+    void testCreateAccount() {
+        long accounts = accountRepository.count();
+        webTestClient.post().uri("/v1/accounts")
+                .bodyValue("{\"currency\": \"EUR\"}")
+                .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueMatches(HttpHeaders.LOCATION, "/v1/accounts/[0-9]+");
+        Assertions.assertEquals(accounts + 1, accountRepository.count());
+    }
+
+    private TransferTransactionDTO transfer(Account source, Account target, String amount) {
+        return TransferTransactionDTO.builder()
+                .sourceAccountId(source.getId())
+                .targetAccountId(target.getId())
+                .amount(Money.parse(amount)).build();
+    }
+}
@@ -3,6 +3,7 @@ package com.tenx.moneytransferservice.repository;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,8 +11,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -28,7 +31,7 @@ class AccountRepositoryTest {
     @BeforeEach
     public void initEach(){
         Account account = Account.builder()
-                .balance(new BigDecimal("1000"))
+                .balance(Money.parse("1000"))
                 .currency(Currency.GBP)
                 .createdAt(LocalDateTime.now()).build();
         AccountRepositoryTest.savedAccount = accountRepository.save(account);
@@ -41,10 +44,10 @@ class AccountRepositoryTest {
     @Test
     @DisplayName("Find a saved account")
     void testFindSavedAccount(){
-        Account foundAccount = accountRepository.findById(savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException("Account does not exist : " + savedAccount.getId()));
+        Account foundAccount = accountRepository.findById(savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException(savedAccount.getId()));
 
         Assertions.assertEquals(savedAccount.getId(),foundAccount.getId());
-        Assertions.assertEquals(0, AccountRepositoryTest.savedAccount.getBalance().compareTo(foundAccount.getBalance()));
+        Assertions.assertEquals(AccountRepositoryTest.savedAccount.getBalance(), foundAccount.getBalance());
         Assertions.assertEquals(AccountRepositoryTest.savedAccount.getCurrency(),foundAccount.getCurrency());
     }
 
@@ -53,10 +56,10 @@ class AccountRepositoryTest {
     @DisplayName("Concurrent changes are not allowed in same account")
     void testConcurrentChangesOnAccount(){
 
-        Account accountInProgress = accountRepository.findById(AccountRepositoryTest.savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException("Account does not exist : " + savedAccount.getId()));
-        accountInProgress.setBalance(new BigDecimal("10"));
-        Account account = accountRepository.findById(AccountRepositoryTest.savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException("Account does not exist : " + savedAccount.getId()));
-        account.setBalance(new BigDecimal("20"));
+        Account accountInProgress = accountRepository.findById(AccountRepositoryTest.savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException(savedAccount.getId()));
+        accountInProgress.setBalance(Money.parse("10"));
+        Account account = accountRepository.findById(AccountRepositoryTest.savedAccount.getId()).orElseThrow(() -> new AccountNotFoundException(savedAccount.getId()));
+        account.setBalance(Money.parse("20"));
 
         Account savedAccount = accountRepository.save(accountInProgress);
 
@@ -66,9 +69,25 @@ class AccountRepositoryTest {
         );
 
         Assertions.assertEquals(accountInProgress.getId(),savedAccount.getId());
-        Assertions.assertEquals(new BigDecimal("10"),savedAccount.getBalance());
+        Assertions.assertEquals(Money.parse("10"),savedAccount.getBalance());
 
     }
 
-
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Every account is in exactly one replay shard")
+    void testFindByShard(){
+        for (int i = 0; i < 20; i++) {
+            accountRepository.save(Account.builder()
+                    .balance(Money.parse("10"))
+                    .currency(Currency.GBP)
+                    .createdAt(LocalDateTime.now()).build());
+        }
+        List<Long> shardedIds = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            accountRepository.findByShard(shard, 4).forEach(account -> shardedIds.add(account.getId()));
+        }
+
+        Assertions.assertEquals(21, shardedIds.size());
+        Assertions.assertEquals(21, new HashSet<>(shardedIds).size());
+    }
+}
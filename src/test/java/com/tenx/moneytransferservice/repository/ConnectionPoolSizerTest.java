@@ -0,0 +1,29 @@
+package com.tenx.moneytransferservice.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"datasource.pool.size-from-cores=true", "datasource.pool.connections-per-core=3", "datasource.pool.spindles=2"})
+class ConnectionPoolSizerTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Connection pool is sized from the core count and kept full")
+    void testPoolSize() {
+        HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+        int expected = Runtime.getRuntime().availableProcessors() * 3 + 2;
+        Assertions.assertEquals(expected, hikariDataSource.getMaximumPoolSize());
+        Assertions.assertEquals(expected, hikariDataSource.getMinimumIdle());
+    }
+}
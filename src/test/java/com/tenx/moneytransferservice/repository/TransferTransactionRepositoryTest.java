@@ -3,13 +3,13 @@ package com.tenx.moneytransferservice.repository;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
 import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @ExtendWith(SpringExtension.class)
@@ -26,11 +26,11 @@ class TransferTransactionRepositoryTest {
     @BeforeEach
     public void initEach() {
         Account sourceAccount = Account.builder()
-                .balance(new BigDecimal("1000"))
+                .balance(Money.parse("1000"))
                 .currency(Currency.GBP)
                 .createdAt(LocalDateTime.now()).build();
         Account targetAccount = Account.builder()
-                .balance(new BigDecimal("2000"))
+                .balance(Money.parse("2000"))
                 .currency(Currency.GBP)
                 .createdAt(LocalDateTime.now()).build();
         TransferTransactionRepositoryTest.savedSourceAccount = accountRepository.save(sourceAccount);
@@ -46,12 +46,13 @@ class TransferTransactionRepositoryTest {
     @Test
     @DisplayName("Persist Transfer Transaction Successfully")
     void testSaveTransferTransactionWithAccounts() {
-        BigDecimal transferAmount = new BigDecimal("500");
+        long transferAmount = Money.parse("500");
 
         TransferTransaction transferTransaction = TransferTransaction.builder()
                 .sourceAccount(TransferTransactionRepositoryTest.savedSourceAccount)
                 .targetAccount(TransferTransactionRepositoryTest.savedTargetAccount)
-                .amount(transferAmount).build();
+                .amount(transferAmount)
+                .createdAt(LocalDateTime.now()).build();
 
 
         TransferTransaction savedTransferTransaction = transferTransactionRepository.save(transferTransaction);
@@ -0,0 +1,146 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.cache.AccountCache;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.PendingCreditRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"account.netting.enabled=true", "account.netting.flush-interval-ms=3600000"})
+class AccountCreditNettingTest {
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private AccountCreditNetting accountCreditNetting;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PendingCreditRepository pendingCreditRepository;
+    @Autowired
+    private AccountCache accountCache;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+    private Account otherAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        otherAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("0"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        accountCreditNetting.flushAll();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Credits are recorded one by one and applied with a single update")
+    void testCreditsNetted() {
+        for (int i = 0; i < 3; i++) {
+            transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100.25"));
+        }
+
+        Account target = accountRepository.findById(targetAccount.getId()).get();
+        Assertions.assertEquals(Money.parse("2000"), target.getBalance());
+        Assertions.assertEquals(Money.parse("300.75"), accountCreditNetting.pending(targetAccount.getId()));
+        Assertions.assertEquals(3, transferTransactionRepository.count());
+
+        accountCreditNetting.flushAll();
+
+        Account flushed = accountRepository.findById(targetAccount.getId()).get();
+        Assertions.assertEquals(Money.parse("2300.75"), flushed.getBalance());
+        Assertions.assertEquals(target.getVersion() + 1, flushed.getVersion());
+        Assertions.assertEquals(0L, accountCreditNetting.pending(targetAccount.getId()));
+    }
+
+    @Test
+    @DisplayName("Debits see credits that are not flushed yet")
+    void testDebitAppliesPendingCredits() {
+        transferTransactionService.transfer(sourceAccount.getId(), otherAccount.getId(), Money.parse("600"));
+
+        transferTransactionService.transfer(otherAccount.getId(), targetAccount.getId(), Money.parse("600"));
+
+        Assertions.assertEquals(0L, accountRepository.findById(otherAccount.getId()).get().getBalance());
+        Assertions.assertEquals(0L, accountCreditNetting.pending(otherAccount.getId()));
+    }
+
+    @Test
+    @DisplayName("Batch debits see credits that are not flushed yet")
+    void testBatchDebitAppliesPendingCredits() {
+        transferTransactionService.transfer(sourceAccount.getId(), otherAccount.getId(), Money.parse("600"));
+
+        List<TransferResultDTO> results = batchTransferService.transferBatch(Collections.singletonList(
+                new TransferTransactionDTO(otherAccount.getId(), targetAccount.getId(), Money.parse("600"))));
+
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(0).getStatus());
+        Assertions.assertEquals(0L, accountRepository.findById(otherAccount.getId()).get().getBalance());
+        Assertions.assertEquals(0L, accountCreditNetting.pending(otherAccount.getId()));
+    }
+
+    @Test
+    @DisplayName("Credits of a rolled back transaction are never applied")
+    void testRolledBackCredit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            accountService.creditAccount(targetAccount.getId(), Money.parse("100"));
+            status.setRollbackOnly();
+        });
+
+        accountCreditNetting.flushAll();
+
+        Assertions.assertEquals(Money.parse("2000"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+    }
+
+    @Test
+    @DisplayName("Committed credits are stored with the transfer and applied by a restarted instance")
+    void testCreditsSurviveRestart() {
+        transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("250"));
+        Assertions.assertEquals(1, pendingCreditRepository.count());
+
+        AccountCreditNetting restarted = new AccountCreditNetting();
+        restarted.accountRepository = accountRepository;
+        restarted.pendingCreditRepository = pendingCreditRepository;
+        restarted.accountCache = accountCache;
+        restarted.transactionTemplate = transactionTemplate;
+        restarted.accountIds = Collections.emptySet();
+        restarted.flushAll();
+
+        Assertions.assertEquals(Money.parse("2250"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(0, pendingCreditRepository.count());
+    }
+}
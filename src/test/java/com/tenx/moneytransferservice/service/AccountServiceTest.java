@@ -3,6 +3,7 @@ package com.tenx.moneytransferservice.service;
 import com.tenx.moneytransferservice.exception.AccountNotFoundException;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
 import com.tenx.moneytransferservice.repository.AccountRepository;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +15,6 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
@@ -36,7 +36,7 @@ class AccountServiceTest {
     @DisplayName("Find existed account successfully")
     void testFindByExistedAccount(){
         Account expectedAccount = Account.builder().id(ACCOUNT_ID).
-                    balance(new BigDecimal("1000")).
+                    balance(Money.parse("1000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         doReturn(Optional.of(expectedAccount)).when(accountRepository).findById(ACCOUNT_ID);
@@ -60,11 +60,11 @@ class AccountServiceTest {
     @DisplayName("Save modified source account")
     void testConcurrentAccountUpdateOnSource(){
         Account account = Account.builder().id(ACCOUNT_ID).
-                balance(new BigDecimal("1000")).
+                balance(Money.parse("1000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         doThrow(ObjectOptimisticLockingFailureException.class).when(accountRepository).save(account);
-        BigDecimal amount = new BigDecimal("500");
+        long amount = Money.parse("500");
         assertThrows(
                 ObjectOptimisticLockingFailureException.class,
                 () -> accountService.debitAccount(account,amount)
@@ -74,11 +74,11 @@ class AccountServiceTest {
     @DisplayName("Save modified target account")
     void testConcurrentAccountUpdateOnTarget(){
         Account account = Account.builder().id(ACCOUNT_ID).
-                balance(new BigDecimal("1000")).
+                balance(Money.parse("1000")).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
         doThrow(ObjectOptimisticLockingFailureException.class).when(accountRepository).save(account);
-        BigDecimal amount = new BigDecimal("500");
+        long amount = Money.parse("500");
         assertThrows(
                 ObjectOptimisticLockingFailureException.class,
                 () -> accountService.creditAccount(account,amount)
@@ -89,8 +89,8 @@ class AccountServiceTest {
     @Test
     @DisplayName("account debit")
     void testDebitAccount(){
-        BigDecimal originalAmount = new BigDecimal("1000");
-        BigDecimal debitAmount = new BigDecimal("500");
+        long originalAmount = Money.parse("1000");
+        long debitAmount = Money.parse("500");
         Account account = Account.builder().id(ACCOUNT_ID).
                 balance(originalAmount).
                 currency(Currency.GBP).
@@ -98,7 +98,7 @@ class AccountServiceTest {
 
 
         Account savedAccount = Account.builder().id(ACCOUNT_ID).
-                balance(originalAmount.subtract(debitAmount)).
+                balance(originalAmount - debitAmount).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
 
@@ -112,15 +112,15 @@ class AccountServiceTest {
     @Test
     @DisplayName("account credit")
     void testCreditAccount(){
-        BigDecimal originalAmount = new BigDecimal("1000");
-        BigDecimal creditAmount = new BigDecimal("500");
+        long originalAmount = Money.parse("1000");
+        long creditAmount = Money.parse("500");
         Account account = Account.builder().id(ACCOUNT_ID).
                 balance(originalAmount).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
 
         Account savedAccount = Account.builder().id(ACCOUNT_ID).
-                balance(originalAmount.add(creditAmount)).
+                balance(originalAmount + creditAmount).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
 
@@ -0,0 +1,128 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountBalanceShard;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceShardRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "transfer.retry.max-attempts=1000")
+class AccountShardServiceTest {
+    @Autowired
+    private AccountShardService accountShardService;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private TransferRetryExecutor transferRetryExecutor;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+
+    private Account shardedAccount;
+    private Account otherAccount;
+
+    @BeforeEach
+    public void initEach() {
+        shardedAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        otherAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        accountShardService.shardAccount(shardedAccount.getId(), 3);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountBalanceShardRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Sharding spreads the balance evenly over the shards")
+    void testShardAccount() {
+        List<Long> shardBalances = accountBalanceShardRepository.findAll().stream()
+                .sorted(Comparator.comparing(AccountBalanceShard::getShardIndex))
+                .map(AccountBalanceShard::getBalance)
+                .collect(Collectors.toList());
+
+        Assertions.assertEquals(3, shardBalances.size());
+        Assertions.assertEquals(Money.parse("333.34"), shardBalances.get(0));
+        Assertions.assertEquals(Money.parse("333.33"), shardBalances.get(2));
+        Assertions.assertEquals(0L, accountRepository.findById(shardedAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("1000"), accountService.findBalance(shardedAccount.getId()));
+
+        accountShardService.shardAccount(shardedAccount.getId(), 0);
+
+        Assertions.assertEquals(0, accountBalanceShardRepository.count());
+        Assertions.assertFalse(accountShardService.isSharded(shardedAccount.getId()));
+        Assertions.assertEquals(Money.parse("1000"), accountRepository.findById(shardedAccount.getId()).get().getBalance());
+    }
+
+    @Test
+    @DisplayName("Debit larger than any shard rebalances the account")
+    void testDebitRebalances() {
+        transferTransactionService.transfer(otherAccount.getId(), shardedAccount.getId(), Money.parse("200"));
+        transferTransactionService.transfer(shardedAccount.getId(), otherAccount.getId(), Money.parse("900"));
+
+        Assertions.assertEquals(Money.parse("300"), accountService.findBalance(shardedAccount.getId()));
+        Assertions.assertEquals(Money.parse("2700"), accountService.findBalance(otherAccount.getId()));
+        assertThrows(
+                InsufficientBalanceException.class,
+                () -> transferTransactionService.transfer(shardedAccount.getId(), otherAccount.getId(), Money.parse("300.01"))
+        );
+    }
+
+    @Test
+    @DisplayName("Concurrent debits of a sharded account never overdraw it")
+    void testConcurrentDebits() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            futures.add(executor.submit(() -> transferRetryExecutor.execute(
+                    () -> transferTransactionService.transfer(shardedAccount.getId(), otherAccount.getId(), Money.parse("50")))));
+        }
+        int succeeded = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+                succeeded++;
+            } catch (Exception e) {
+                Assertions.assertTrue(e.getCause() instanceof InsufficientBalanceException);
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(20, succeeded);
+        Assertions.assertEquals(0L, accountService.findBalance(shardedAccount.getId()));
+        Assertions.assertEquals(Money.parse("3000"), accountService.findBalance(otherAccount.getId()));
+    }
+}
@@ -0,0 +1,166 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.StatementDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.AccountDailyBalance;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.repository.AccountDailyBalanceRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"account.statement.rollup-grace=0s", "account.statement.rollup-interval-ms=3600000"})
+class AccountStatementServiceTest {
+    @Autowired
+    private AccountStatementService accountStatementService;
+    @Autowired
+    private AccountStatementRollup accountStatementRollup;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private AccountDailyBalanceRepository accountDailyBalanceRepository;
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private TransferRetryExecutor transferRetryExecutor;
+
+    private final LocalDate today = LocalDate.now();
+    private Account account;
+    private Account otherAccount;
+
+    @BeforeEach
+    public void initEach() {
+        // 1000 three days ago, 900 after the first day, 920 after the second, 910 today
+        account = accountRepository.save(Account.builder()
+                .balance(Money.parse("910"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        otherAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1090"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        transfer(account, otherAccount, "100", today.minusDays(3));
+        transfer(otherAccount, account, "50", today.minusDays(2));
+        transfer(account, otherAccount, "30", today.minusDays(2));
+        transfer(account, otherAccount, "10", today);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        accountDailyBalanceRepository.deleteAll();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Statements read the same before and after the finished days are rolled up")
+    void testStatement() {
+        StatementDTO raw = accountStatementService.findStatement(account.getId(), today.minusDays(3), today);
+
+        accountStatementRollup.rollUp();
+
+        Assertions.assertEquals(4, accountDailyBalanceRepository.count());
+        StatementDTO statement = accountStatementService.findStatement(account.getId(), today.minusDays(3), today);
+        Assertions.assertEquals(raw, statement);
+        Assertions.assertEquals(Money.parse("1000"), statement.getOpeningBalance());
+        Assertions.assertEquals(Money.parse("140"), statement.getDebits());
+        Assertions.assertEquals(Money.parse("50"), statement.getCredits());
+        Assertions.assertEquals(4, statement.getTransferCount());
+        Assertions.assertEquals(Money.parse("910"), statement.getClosingBalance());
+        Assertions.assertEquals(3, statement.getDays().size());
+
+        StatementDTO secondDay = accountStatementService.findStatement(account.getId(), today.minusDays(2), today.minusDays(2));
+        Assertions.assertEquals(Money.parse("900"), secondDay.getOpeningBalance());
+        Assertions.assertEquals(Money.parse("920"), secondDay.getClosingBalance());
+
+        StatementDTO quietDay = accountStatementService.findStatement(account.getId(), today.minusDays(1), today.minusDays(1));
+        Assertions.assertEquals(Money.parse("920"), quietDay.getOpeningBalance());
+        Assertions.assertEquals(Money.parse("920"), quietDay.getClosingBalance());
+        Assertions.assertTrue(quietDay.getDays().isEmpty());
+
+        StatementDTO otherStatement = accountStatementService.findStatement(otherAccount.getId(), today.minusDays(3), today);
+        Assertions.assertEquals(Money.parse("1000"), otherStatement.getOpeningBalance());
+        Assertions.assertEquals(Money.parse("1090"), otherStatement.getClosingBalance());
+    }
+
+    @Test
+    @DisplayName("The first rolled up day opens with the right balance while transfers commit")
+    void testRollUpWhileTransferring() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> transfers = executor.submit(() -> {
+            while (running.get()) {
+                transferRetryExecutor.execute(() -> transferTransactionService.transfer(otherAccount.getId(), account.getId(), Money.parse("0.01")));
+            }
+        });
+        try {
+            for (int i = 0; i < 50; i++) {
+                accountStatementRollup.rollUp();
+                AccountDailyBalance firstDay = accountDailyBalanceRepository.findFirstByAccountIdAndDayGreaterThanEqualOrderByDay(
+                        account.getId(), today.minusDays(3)).orElseThrow();
+                Assertions.assertEquals(Money.parse("1000"), firstDay.getOpeningBalance());
+                accountDailyBalanceRepository.deleteAll();
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+        transfers.get();
+    }
+
+    @Test
+    @DisplayName("Statements of days not rolled up open with the right balance while transfers commit")
+    void testStatementWhileTransferring() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> transfers = executor.submit(() -> {
+            while (running.get()) {
+                transferRetryExecutor.execute(() -> transferTransactionService.transfer(otherAccount.getId(), account.getId(), Money.parse("0.01")));
+            }
+        });
+        try {
+            for (int i = 0; i < 50; i++) {
+                StatementDTO statement = accountStatementService.findStatement(account.getId(), today.minusDays(3), today);
+                Assertions.assertEquals(Money.parse("1000"), statement.getOpeningBalance());
+                Assertions.assertEquals(Money.parse("900"), statement.getDays().get(0).getClosingBalance());
+            }
+        } finally {
+            running.set(false);
+            executor.shutdown();
+        }
+        transfers.get();
+    }
+
+    @Test
+    @DisplayName("Statements for future days or reversed days are rejected")
+    void testInvalidDays() {
+        assertThrows(IllegalArgumentException.class, () -> accountStatementService.findStatement(account.getId(), today, today.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> accountStatementService.findStatement(account.getId(), today, today.minusDays(1)));
+    }
+
+    private void transfer(Account source, Account target, String amount, LocalDate day) {
+        transferTransactionRepository.save(TransferTransaction.builder()
+                .sourceAccount(source)
+                .targetAccount(target)
+                .amount(Money.parse(amount))
+                .createdAt(day.atTime(12, 0)).build());
+    }
+}
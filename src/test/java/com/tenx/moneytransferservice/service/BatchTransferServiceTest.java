@@ -0,0 +1,115 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceShardRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class BatchTransferServiceTest {
+    @Autowired
+    private BatchTransferService batchTransferService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private AccountShardService accountShardService;
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+    private Account usdAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        usdAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.USD)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountBalanceShardRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Batch debits a sharded account against the balance of its shards")
+    void testTransferBatchFromShardedAccount() {
+        accountShardService.shardAccount(sourceAccount.getId(), 4);
+        List<TransferTransactionDTO> transfers = Arrays.asList(
+                transfer(sourceAccount.getId(), targetAccount.getId(), "400"),
+                transfer(sourceAccount.getId(), targetAccount.getId(), "400"),
+                transfer(targetAccount.getId(), sourceAccount.getId(), "100"),
+                transfer(sourceAccount.getId(), targetAccount.getId(), "400"),
+                transfer(sourceAccount.getId(), targetAccount.getId(), "100"));
+
+        List<TransferResultDTO> results = batchTransferService.transferBatch(transfers);
+
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(0).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(1).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(2).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.REJECTED, results.get(3).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(4).getStatus());
+        Assertions.assertEquals(Money.parse("200"), accountShardService.balance(sourceAccount.getId()));
+        Assertions.assertEquals(Money.parse("2800"), accountShardService.balance(targetAccount.getId()));
+    }
+
+    @Test
+    @DisplayName("Batch applies valid transfers and rejects the others")
+    void testTransferBatch() {
+        List<TransferTransactionDTO> transfers = Arrays.asList(
+                transfer(sourceAccount.getId(), targetAccount.getId(), "600"),
+                transfer(sourceAccount.getId(), targetAccount.getId(), "600"),
+                transfer(targetAccount.getId(), sourceAccount.getId(), "100"),
+                transfer(sourceAccount.getId(), usdAccount.getId(), "10"),
+                transfer(sourceAccount.getId(), 9999L, "10"));
+
+        List<TransferResultDTO> results = batchTransferService.transferBatch(transfers);
+
+        Assertions.assertEquals(5, results.size());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(0).getStatus());
+        Assertions.assertNotNull(results.get(0).getTransferId());
+        Assertions.assertEquals(TransferResultDTO.Status.REJECTED, results.get(1).getStatus());
+        Assertions.assertEquals("Insufficent Balance For : " + sourceAccount.getId(), results.get(1).getMessage());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, results.get(2).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.REJECTED, results.get(3).getStatus());
+        Assertions.assertEquals("Account does not exist : 9999", results.get(4).getMessage());
+        Assertions.assertEquals(2, transferTransactionRepository.count());
+        Assertions.assertEquals(Money.parse("500"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2500"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+    }
+
+    private TransferTransactionDTO transfer(Long sourceAccountId, Long targetAccountId, String amount) {
+        return TransferTransactionDTO.builder()
+                .sourceAccountId(sourceAccountId)
+                .targetAccountId(targetAccountId)
+                .amount(Money.parse(amount)).build();
+    }
+}
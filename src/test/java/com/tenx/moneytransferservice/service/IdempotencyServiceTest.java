@@ -0,0 +1,80 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.cache.IdempotencyCache;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class IdempotencyServiceTest {
+    @Autowired
+    private IdempotencyService idempotencyService;
+    @Autowired
+    private IdempotencyCache idempotencyCache;
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        idempotencyCache.clear();
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Key of a persisted transfer is found after the cache is cleared")
+    void testFindTransferIdFromDatabase() {
+        TransferTransaction transferTransaction = transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "key-1");
+        idempotencyCache.clear();
+
+        Assertions.assertEquals(transferTransaction.getId(), idempotencyService.findTransferId("key-1"));
+        Assertions.assertEquals(transferTransaction.getId(), idempotencyCache.get("key-1"));
+        Assertions.assertNull(idempotencyService.findTransferId("key-2"));
+    }
+
+    @Test
+    @DisplayName("Same key cannot create two transfers")
+    void testDuplicateKeyRejected() {
+        transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "key-1");
+
+        assertThrows(
+                DataIntegrityViolationException.class,
+                () -> transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "key-1")
+        );
+        Assertions.assertEquals(1, transferTransactionRepository.count());
+        Assertions.assertEquals(Money.parse("900"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+    }
+}
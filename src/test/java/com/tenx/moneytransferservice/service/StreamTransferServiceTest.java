@@ -0,0 +1,115 @@
+package com.tenx.moneytransferservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenx.moneytransferservice.controller.TransferFrame;
+import com.tenx.moneytransferservice.controller.TransferResultDTO;
+import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = "transfer.stream.chunk-size=2")
+class StreamTransferServiceTest {
+    @Autowired
+    private StreamTransferService streamTransferService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Every streamed transfer gets a result line")
+    void testTransferStream() throws Exception {
+        String input = line(sourceAccount.getId(), targetAccount.getId(), "400")
+                + line(sourceAccount.getId(), targetAccount.getId(), "400")
+                + line(sourceAccount.getId(), targetAccount.getId(), "400");
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        streamTransferService.transferStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(3, lines.length);
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, objectMapper.readValue(lines[0], TransferResultDTO.class).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, objectMapper.readValue(lines[1], TransferResultDTO.class).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.REJECTED, objectMapper.readValue(lines[2], TransferResultDTO.class).getStatus());
+        Assertions.assertEquals(2, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Malformed record stops the stream after committing the records before it")
+    void testMalformedTransferStream() throws Exception {
+        String input = line(sourceAccount.getId(), targetAccount.getId(), "100") + "{ \"sourceAccountId\": \n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        streamTransferService.transferStream(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, lines.length);
+        Assertions.assertTrue(lines[1].contains("Malformed transfer record"));
+        Assertions.assertEquals(1, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("Streamed transfer frames are committed in chunks and a truncated frame ends the stream")
+    void testTransferFrameStream() throws Exception {
+        ByteBuffer input = ByteBuffer.allocate(3 * TransferFrame.FRAME_SIZE + 5);
+        for (int i = 0; i < 3; i++) {
+            TransferFrame.encode(input, TransferTransactionDTO.builder()
+                    .sourceAccountId(sourceAccount.getId())
+                    .targetAccountId(targetAccount.getId())
+                    .amount(Money.parse("400")).build());
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        streamTransferService.transferFrameStream(new ByteArrayInputStream(input.array()), output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(4, lines.length);
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, objectMapper.readValue(lines[0], TransferResultDTO.class).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.COMPLETED, objectMapper.readValue(lines[1], TransferResultDTO.class).getStatus());
+        Assertions.assertEquals(TransferResultDTO.Status.REJECTED, objectMapper.readValue(lines[2], TransferResultDTO.class).getStatus());
+        Assertions.assertTrue(lines[3].contains("Malformed transfer record"));
+        Assertions.assertEquals(2, transferTransactionRepository.count());
+    }
+
+    private String line(Long sourceAccountId, Long targetAccountId, String amount) {
+        return "{\"sourceAccountId\":" + sourceAccountId + ",\"targetAccountId\":" + targetAccountId + ",\"amount\":\"" + amount + "\"}\n";
+    }
+}
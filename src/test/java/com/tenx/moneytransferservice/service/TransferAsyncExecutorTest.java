@@ -0,0 +1,45 @@
+package com.tenx.moneytransferservice.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"transfer.execution.async.pool-size=1", "transfer.execution.async.queue-capacity=1"})
+class TransferAsyncExecutorTest {
+    @Autowired
+    private TransferAsyncExecutor transferAsyncExecutor;
+
+    @Test
+    @DisplayName("Transfers beyond the pool and queue capacity are rejected")
+    void testSaturatedExecutorRejects() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> running = transferAsyncExecutor.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 1;
+        });
+        CompletableFuture<Integer> queued = transferAsyncExecutor.submit(() -> 2);
+
+        assertThrows(
+                RejectedExecutionException.class,
+                () -> transferAsyncExecutor.submit(() -> 3)
+        );
+        release.countDown();
+        Assertions.assertEquals(1, running.get());
+        Assertions.assertEquals(2, queued.get());
+    }
+}
@@ -0,0 +1,145 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class TransferConcurrencyControlTest {
+    @Autowired
+    private TransferConcurrencyControl transferConcurrencyControl;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private TransferTransactionService transferTransactionService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+
+    private final static int THREADS = 8;
+    private final static int TRANSFERS_PER_THREAD = 10;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        ReflectionTestUtils.setField(transferConcurrencyControl, "mode", ConcurrencyMode.OPTIMISTIC);
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Striped locks serialize concurrent transfers without conflicts")
+    void testStripedConcurrentTransfers() throws Exception {
+        ReflectionTestUtils.setField(transferConcurrencyControl, "mode", ConcurrencyMode.STRIPED);
+        runConcurrentTransfers();
+        assertBalances();
+    }
+
+    @Test
+    @DisplayName("Pessimistic row locks serialize concurrent transfers without conflicts")
+    void testPessimisticConcurrentTransfers() throws Exception {
+        ReflectionTestUtils.setField(transferConcurrencyControl, "mode", ConcurrencyMode.PESSIMISTIC);
+        runConcurrentTransfers();
+        assertBalances();
+    }
+
+    @Test
+    @DisplayName("Conditional updates apply concurrent transfers without locks or retries")
+    void testConditionalUpdateConcurrentTransfers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * TRANSFERS_PER_THREAD; i++) {
+            boolean forward = i % 2 == 0;
+            Long from = forward ? sourceAccount.getId() : targetAccount.getId();
+            Long to = forward ? targetAccount.getId() : sourceAccount.getId();
+            long amount = forward ? Money.parse("20") : Money.parse("10");
+            futures.add(executor.submit(() -> transferTransactionService.transfer(from, to, amount)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertBalances();
+    }
+
+    @Test
+    @DisplayName("Conditional debit never overdraws the source account")
+    void testConditionalDebitNeverOverdraws() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * TRANSFERS_PER_THREAD; i++) {
+            futures.add(executor.submit(() -> transferTransactionService.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("30"))));
+        }
+        int rejected = 0;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Assertions.assertTrue(e.getCause() instanceof InsufficientBalanceException);
+                rejected++;
+            }
+        }
+        executor.shutdown();
+        long sourceBalance = accountRepository.findById(sourceAccount.getId()).get().getBalance();
+        Assertions.assertEquals(THREADS * TRANSFERS_PER_THREAD - 33, rejected);
+        Assertions.assertEquals(Money.parse("10"), sourceBalance);
+        Assertions.assertEquals(33, transferTransactionRepository.count());
+    }
+
+    private void runConcurrentTransfers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS * TRANSFERS_PER_THREAD; i++) {
+            boolean forward = i % 2 == 0;
+            Long from = forward ? sourceAccount.getId() : targetAccount.getId();
+            Long to = forward ? targetAccount.getId() : sourceAccount.getId();
+            long amount = forward ? Money.parse("20") : Money.parse("10");
+            futures.add(executor.submit(() -> transferConcurrencyControl.execute(from, to, () ->
+                    transferTransactionService.transferMoney(accountService.findAccount(from), accountService.findAccount(to), amount))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    private void assertBalances() {
+        int transfersEachWay = THREADS * TRANSFERS_PER_THREAD / 2;
+        long moved = Money.parse("10") * transfersEachWay;
+        Assertions.assertEquals(Money.parse("1000") - moved, accountService.findAccount(sourceAccount.getId()).getBalance());
+        Assertions.assertEquals(Money.parse("1000") + moved, accountService.findAccount(targetAccount.getId()).getBalance());
+    }
+}
@@ -0,0 +1,158 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.exception.CurrencyMismatchException;
+import com.tenx.moneytransferservice.exception.InsufficientBalanceException;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.repository.AccountBalanceShardRepository;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(properties = {"transfer.group-commit.enabled=true", "transfer.group-commit.max-batch=4", "transfer.group-commit.max-wait=1s"})
+class TransferGroupCommitterTest {
+    @Autowired
+    private TransferGroupCommitter transferGroupCommitter;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private AccountBalanceShardRepository accountBalanceShardRepository;
+    @SpyBean
+    private AccountShardService accountShardService;
+
+    private Account sourceAccount;
+    private Account targetAccount;
+    private Account targetUsdAccount;
+
+    @BeforeEach
+    public void initEach() {
+        sourceAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        targetUsdAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("2000"))
+                .currency(Currency.USD)
+                .createdAt(LocalDateTime.now()).build());
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountBalanceShardRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Rejected transfers are left out of a group without rolling back the others")
+    void testGroupWithRejections() throws Exception {
+        CompletableFuture<TransferTransaction> first = transferGroupCommitter.submit(sourceAccount.getId(), targetAccount.getId(), Money.parse("600"), null);
+        CompletableFuture<TransferTransaction> overdraw = transferGroupCommitter.submit(sourceAccount.getId(), targetAccount.getId(), Money.parse("600"), null);
+        CompletableFuture<TransferTransaction> mismatch = transferGroupCommitter.submit(sourceAccount.getId(), targetUsdAccount.getId(), Money.parse("100"), null);
+        CompletableFuture<TransferTransaction> last = transferGroupCommitter.submit(targetAccount.getId(), sourceAccount.getId(), Money.parse("50"), null);
+
+        Assertions.assertNotNull(first.get().getId());
+        Assertions.assertNotNull(last.get().getId());
+        ExecutionException overdrawn = assertThrows(ExecutionException.class, overdraw::get);
+        Assertions.assertTrue(overdrawn.getCause() instanceof InsufficientBalanceException);
+        ExecutionException mismatched = assertThrows(ExecutionException.class, mismatch::get);
+        Assertions.assertTrue(mismatched.getCause() instanceof CurrencyMismatchException);
+
+        Assertions.assertEquals(Money.parse("450"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2550"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(2, transferTransactionRepository.count());
+        Assertions.assertEquals(4, meterRegistry.get("transfer.group.size").summary().max());
+    }
+
+    @Test
+    @DisplayName("A failed shard rebalance rolls back only its own transfer of the group")
+    void testShardFailureInGroup() throws Exception {
+        Account shardedAccount = shardedAccount();
+        CompletableFuture<TransferTransaction> first = transferGroupCommitter.submit(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), null);
+        CompletableFuture<TransferTransaction> overdraw = transferGroupCommitter.submit(shardedAccount.getId(), targetAccount.getId(), Money.parse("1200"), null);
+        CompletableFuture<TransferTransaction> rebalanced = transferGroupCommitter.submit(shardedAccount.getId(), targetAccount.getId(), Money.parse("300"), null);
+        CompletableFuture<TransferTransaction> last = transferGroupCommitter.submit(targetAccount.getId(), sourceAccount.getId(), Money.parse("50"), null);
+
+        Assertions.assertNotNull(first.get().getId());
+        Assertions.assertNotNull(rebalanced.get().getId());
+        Assertions.assertNotNull(last.get().getId());
+        ExecutionException overdrawn = assertThrows(ExecutionException.class, overdraw::get);
+        Assertions.assertTrue(overdrawn.getCause() instanceof InsufficientBalanceException);
+
+        Assertions.assertEquals(Money.parse("700"), accountShardService.balance(shardedAccount.getId()));
+        Assertions.assertEquals(Money.parse("950"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+        Assertions.assertEquals(Money.parse("2350"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(3, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("A shard debit losing an optimistic lock race is retried on its own while the group commits")
+    void testShardConflictInGroup() throws Exception {
+        Account shardedAccount = shardedAccount();
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, shardedAccount.getId()))
+                .doCallRealMethod()
+                .when(accountShardService).debit(shardedAccount.getId(), Money.parse("100"));
+        CompletableFuture<TransferTransaction> first = transferGroupCommitter.submit(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), null);
+        CompletableFuture<TransferTransaction> conflicting = transferGroupCommitter.submit(shardedAccount.getId(), targetAccount.getId(), Money.parse("100"), null);
+        CompletableFuture<TransferTransaction> last = transferGroupCommitter.submit(targetAccount.getId(), sourceAccount.getId(), Money.parse("50"), null);
+
+        Assertions.assertNotNull(first.get().getId());
+        Assertions.assertNotNull(conflicting.get().getId());
+        Assertions.assertNotNull(last.get().getId());
+        verify(accountShardService, times(2)).debit(shardedAccount.getId(), Money.parse("100"));
+
+        Assertions.assertEquals(Money.parse("900"), accountShardService.balance(shardedAccount.getId()));
+        Assertions.assertEquals(Money.parse("2150"), accountRepository.findById(targetAccount.getId()).get().getBalance());
+        Assertions.assertEquals(3, transferTransactionRepository.count());
+    }
+
+    @Test
+    @DisplayName("A repeated idempotency key in a group fails only the repeated transfer")
+    void testDuplicateKeyInGroup() {
+        TransferTransaction transferTransaction = transferGroupCommitter.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "group-key-1");
+
+        assertThrows(
+                DataIntegrityViolationException.class,
+                () -> transferGroupCommitter.transfer(sourceAccount.getId(), targetAccount.getId(), Money.parse("100"), "group-key-1")
+        );
+        Assertions.assertEquals(transferTransaction.getId(), transferTransactionRepository.findIdByIdempotencyKey("group-key-1").get());
+        Assertions.assertEquals(Money.parse("900"), accountRepository.findById(sourceAccount.getId()).get().getBalance());
+    }
+
+    private Account shardedAccount() {
+        Account shardedAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        accountShardService.shardAccount(shardedAccount.getId(), 4);
+        return shardedAccount;
+    }
+}
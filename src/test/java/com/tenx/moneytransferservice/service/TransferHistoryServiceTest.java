@@ -0,0 +1,96 @@
+package com.tenx.moneytransferservice.service;
+
+import com.tenx.moneytransferservice.controller.TransferHistoryDTO;
+import com.tenx.moneytransferservice.controller.TransferHistoryPageDTO;
+import com.tenx.moneytransferservice.model.Account;
+import com.tenx.moneytransferservice.model.Currency;
+import com.tenx.moneytransferservice.model.Money;
+import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.repository.AccountRepository;
+import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest
+class TransferHistoryServiceTest {
+    @Autowired
+    private TransferHistoryService transferHistoryService;
+    @Autowired
+    private AccountRepository accountRepository;
+    @Autowired
+    private TransferTransactionRepository transferTransactionRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Account account;
+    private Account otherAccount;
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    public void initEach() {
+        account = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        otherAccount = accountRepository.save(Account.builder()
+                .balance(Money.parse("1000"))
+                .currency(Currency.GBP)
+                .createdAt(LocalDateTime.now()).build());
+        LocalDateTime start = LocalDateTime.of(2021, 5, 1, 10, 0);
+        // pairs share a timestamp, so pages have to break ties on the id
+        for (int i = 0; i < 7; i++) {
+            boolean outgoing = i % 2 == 0;
+            newestFirst.add(0, transferTransactionRepository.save(TransferTransaction.builder()
+                    .sourceAccount(outgoing ? account : otherAccount)
+                    .targetAccount(outgoing ? otherAccount : account)
+                    .amount(Money.parse("1"))
+                    .createdAt(start.plusSeconds(i / 2)).build()).getId());
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        transferTransactionRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Pages walk every transfer in and out of the account once, newest first")
+    void testPaging() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransferHistoryPageDTO page = transferHistoryService.findTransfers(account.getId(), cursor, 2);
+            seen.addAll(page.getTransfers().stream().map(TransferHistoryDTO::getId).collect(Collectors.toList()));
+            cursor = page.getNext();
+            pages++;
+        } while (cursor != null);
+
+        Assertions.assertEquals(newestFirst, seen);
+        Assertions.assertEquals(4, pages);
+    }
+
+    @Test
+    @DisplayName("History reads are index seeks on the account and invalid requests are rejected")
+    void testIndexesAndValidation() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM transfer_transaction WHERE source_account_id = ? " +
+                "AND created_at < ? ORDER BY created_at DESC, id DESC", String.class, account.getId(), LocalDateTime.now());
+        Assertions.assertTrue(plan.toUpperCase().contains("IDX_TRANSFER_SOURCE_CREATED"), plan);
+
+        assertThrows(IllegalArgumentException.class, () -> transferHistoryService.findTransfers(account.getId(), "not a cursor", 2));
+        assertThrows(IllegalArgumentException.class, () -> transferHistoryService.findTransfers(account.getId(), null, 0));
+    }
+}
@@ -4,6 +4,7 @@ import com.tenx.moneytransferservice.controller.TransferTransactionDTO;
 import com.tenx.moneytransferservice.model.Account;
 import com.tenx.moneytransferservice.model.Currency;
 import com.tenx.moneytransferservice.model.TransferTransaction;
+import com.tenx.moneytransferservice.model.Money;
 import com.tenx.moneytransferservice.repository.AccountRepository;
 import com.tenx.moneytransferservice.repository.TransferTransactionRepository;
 import org.junit.jupiter.api.Assertions;
@@ -15,10 +16,10 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(SpringExtension.class)
@@ -40,10 +41,10 @@ class TransferTransactionServiceTest {
     @Test
     @DisplayName("Transfer Money Succesfully")
     void testTransferMoney() {
-        BigDecimal originalSourceAccountAmount = new BigDecimal("2000");
-        BigDecimal originalTargetAccountAmount = new BigDecimal("1000");
+        long originalSourceAccountAmount = Money.parse("2000");
+        long originalTargetAccountAmount = Money.parse("1000");
 
-        BigDecimal transferAmount = new BigDecimal("500");
+        long transferAmount = Money.parse("500");
 
         Account sourceAccount = Account.builder().id(SOURCE_ACCOUNT_ID).
                 balance(originalSourceAccountAmount).
@@ -53,12 +54,6 @@ class TransferTransactionServiceTest {
                 balance(originalTargetAccountAmount).
                 currency(Currency.GBP).
                 createdAt(LocalDateTime.now()).build();
-        TransferTransaction transferTransaction = TransferTransaction.builder()
-                .sourceAccount(sourceAccount)
-                .targetAccount(targetAccount)
-                .amount(transferAmount).build();
-
-
         TransferTransaction savedTransferTransaction = TransferTransaction.builder()
                 .sourceAccount(sourceAccount)
                 .targetAccount(targetAccount)
@@ -66,13 +61,17 @@ class TransferTransactionServiceTest {
                 .id(SUCCESSFUL_TRANSACTION_ID).build();
 
 
-        doReturn(savedTransferTransaction).when(transferTransactionRepository).save(transferTransaction);
+        doReturn(savedTransferTransaction).when(transferTransactionRepository).save(argThat(transferTransaction ->
+                transferTransaction.getSourceAccount() == sourceAccount
+                        && transferTransaction.getTargetAccount() == targetAccount
+                        && transferTransaction.getAmount() == transferAmount
+                        && transferTransaction.getCreatedAt() != null));
 
 
         TransferTransaction actualTransferTransaction = transferTransactionService.transferMoney(sourceAccount,targetAccount,transferAmount);
         Assertions.assertNotNull(actualTransferTransaction);
-        Assertions.assertEquals(originalSourceAccountAmount.subtract(transferAmount),actualTransferTransaction.getSourceAccount().getBalance());
-        Assertions.assertEquals(originalTargetAccountAmount.add(transferAmount),actualTransferTransaction.getTargetAccount().getBalance());
+        Assertions.assertEquals(originalSourceAccountAmount - transferAmount,actualTransferTransaction.getSourceAccount().getBalance());
+        Assertions.assertEquals(originalTargetAccountAmount + transferAmount,actualTransferTransaction.getTargetAccount().getBalance());
         Assertions.assertEquals(transferAmount,actualTransferTransaction.getAmount());
 
     }